@@ -0,0 +1,18 @@
+package org.example.commonevents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangeEvent {
+    private Long productId;
+    private BigDecimal price;
+    private Integer stockQuantity;
+    private Long version;
+    private boolean deleted;
+}
@@ -0,0 +1,13 @@
+package org.example.commonevents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockLine {
+    private Long productId;
+    private Integer quantity;
+}
@@ -0,0 +1,15 @@
+package org.example.commonevents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReleaseEvent {
+    private Long orderId;
+    private UUID orderNumber;
+}
@@ -0,0 +1,17 @@
+package org.example.commonevents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockReservationEvent {
+    private Long orderId;
+    private UUID orderNumber;
+    private List<StockLine> lines;
+}
@@ -0,0 +1,18 @@
+package org.example.commonevents;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockResultEvent {
+    private Long orderId;
+    private UUID orderNumber;
+    private List<Long> productIds;
+    private boolean confirmed;
+}
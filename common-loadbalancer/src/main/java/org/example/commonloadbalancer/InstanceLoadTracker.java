@@ -0,0 +1,108 @@
+package org.example.commonloadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts in-flight requests and keeps an exponentially weighted moving average of response times per service
+ * instance. Fed by the load balancer lifecycle of Feign clients and {@code lb://} gateway routes, and read by
+ * {@link LatencyAwareLoadBalancer}.
+ */
+@RequiredArgsConstructor
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private final InstanceSelectionProperties properties;
+    private final Map<String, Load> loads = new ConcurrentHashMap<>();
+
+    static final class Load {
+        final AtomicInteger outstanding = new AtomicInteger();
+        private double ewmaNanos;
+        private long updatedAt;
+
+        synchronized void observe(long latencyNanos, long now, long decayNanos) {
+            if (updatedAt == 0) {
+                ewmaNanos = latencyNanos;
+            } else {
+                double weight = Math.exp(-(double) Math.max(0, now - updatedAt) / decayNanos);
+                ewmaNanos = ewmaNanos * weight + latencyNanos * (1 - weight);
+            }
+            updatedAt = now;
+        }
+
+        synchronized double ewmaNanos() {
+            return ewmaNanos;
+        }
+    }
+
+    // Lower is better. Instances that have not answered yet score 0 under EWMA, so they are tried straight away.
+    public double score(ServiceInstance instance) {
+        Load load = loads.get(key(instance));
+        if (load == null) {
+            return 0;
+        }
+        int outstanding = load.outstanding.get();
+        if (properties.getMode() == InstanceSelectionProperties.Mode.LEAST_OUTSTANDING) {
+            return outstanding;
+        }
+        return load.ewmaNanos() * (outstanding + 1);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (request.getContext() instanceof TimedRequestContext timed) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        if (lbResponse.hasServer()) {
+            load(lbResponse.getServer()).outstanding.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        Load load = load(lbResponse.getServer());
+        load.outstanding.decrementAndGet();
+
+        long now = System.nanoTime();
+        long startedAt = completionContext.getLoadBalancerRequest() != null
+                && completionContext.getLoadBalancerRequest().getContext() instanceof TimedRequestContext timed
+                ? timed.getRequestStartTime() : 0;
+        if (startedAt == 0) {
+            return;
+        }
+        long latency = now - startedAt;
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            latency = Math.max(latency, TimeUnit.MILLISECONDS.toNanos(properties.getFailurePenaltyMs()));
+        }
+        load.observe(latency, now, TimeUnit.MILLISECONDS.toNanos(properties.getDecayMs()));
+    }
+
+    private Load load(ServiceInstance instance) {
+        return loads.computeIfAbsent(key(instance), key -> new Load());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
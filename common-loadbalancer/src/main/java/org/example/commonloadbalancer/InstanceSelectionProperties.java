@@ -0,0 +1,17 @@
+package org.example.commonloadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "load-balancer")
+public class InstanceSelectionProperties {
+
+    public enum Mode {
+        LEAST_OUTSTANDING, EWMA
+    }
+
+    private Mode mode = Mode.EWMA;
+    private long decayMs = 10_000;
+    private long failurePenaltyMs = 1_000;
+}
@@ -0,0 +1,19 @@
+package org.example.commonloadbalancer;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+
+// Auto-configuration, listed in META-INF/spring/...AutoConfiguration.imports, so every service that depends on this
+// module balances all of its load-balanced clients with LatencyAwareLoadBalancer.
+@AutoConfiguration
+@EnableConfigurationProperties(InstanceSelectionProperties.class)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(InstanceSelectionProperties properties) {
+        return new InstanceLoadTracker(properties);
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.commonloadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Three in-process product-service stubs, one of them slow, behind the balancer and tracker as a Feign client or
+// gateway route would use them: choose, onStartRequest, the HTTP call, onComplete.
+class LatencyAwareLoadBalancerTest {
+
+    private static final long[] LATENCIES_MS = {5, 5, 150};
+    private static final int SLOW = 2;
+    private static final int CALLERS = 4;
+    private static final int CALLS_PER_CALLER = 60;
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final List<AtomicInteger> hits = new ArrayList<>();
+    private final HttpClient http = HttpClient.newHttpClient();
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverExecutor = Executors.newCachedThreadPool();
+        for (long latencyMs : LATENCIES_MS) {
+            AtomicInteger count = new AtomicInteger();
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.setExecutor(serverExecutor);
+            server.createContext("/products/1", exchange -> {
+                count.incrementAndGet();
+                try {
+                    Thread.sleep(latencyMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] body = "{\"id\":1}".getBytes();
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            servers.add(server);
+            hits.add(count);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void ewmaMovesTrafficAwayFromTheSlowInstance() throws Exception {
+        run(InstanceSelectionProperties.Mode.EWMA);
+
+        int total = CALLERS * CALLS_PER_CALLER;
+        assertThat(hits.get(SLOW).get()).isLessThan(total / 10);
+        assertThat(hits.get(0).get() + hits.get(1).get()).isGreaterThan(total * 9 / 10);
+    }
+
+    @Test
+    void leastOutstandingMovesTrafficAwayFromTheSlowInstance() throws Exception {
+        run(InstanceSelectionProperties.Mode.LEAST_OUTSTANDING);
+
+        // slow requests pile up as in-flight work, so the slow instance loses most comparisons while it is busy
+        int total = CALLERS * CALLS_PER_CALLER;
+        assertThat(hits.get(SLOW).get()).isLessThan(total / 5);
+    }
+
+    @Test
+    void autoConfigurationBalancesEveryClientWithTheSharedTracker() {
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(LoadBalancerAutoConfiguration.class, LoadBalancerConfig.class))
+                .withPropertyValues("load-balancer.mode=LEAST_OUTSTANDING")
+                .run(context -> {
+                    assertThat(context.getBean(InstanceSelectionProperties.class).getMode())
+                            .isEqualTo(InstanceSelectionProperties.Mode.LEAST_OUTSTANDING);
+                    LoadBalancerClientFactory clientFactory = context.getBean(LoadBalancerClientFactory.class);
+                    assertThat(clientFactory.getInstance("product-service")).isInstanceOf(LatencyAwareLoadBalancer.class);
+                    assertThat(clientFactory.getInstances("product-service", InstanceLoadTracker.class))
+                            .containsValue(context.getBean(InstanceLoadTracker.class));
+                });
+    }
+
+    private void run(InstanceSelectionProperties.Mode mode) throws Exception {
+        InstanceSelectionProperties properties = new InstanceSelectionProperties();
+        properties.setMode(mode);
+        InstanceLoadTracker tracker = new InstanceLoadTracker(properties);
+        ServiceInstance[] instances = servers.stream()
+                .map(server -> new DefaultServiceInstance(null, "product-service", "127.0.0.1",
+                        server.getAddress().getPort(), false))
+                .toArray(ServiceInstance[]::new);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(
+                Map.of("supplier", ServiceInstanceListSuppliers.from("product-service", instances)));
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(
+                beanFactory.getBeanProvider(ServiceInstanceListSupplier.class), tracker);
+
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int caller = 0; caller < CALLERS; caller++) {
+                done.add(callers.submit(() -> {
+                    for (int i = 0; i < CALLS_PER_CALLER; i++) {
+                        call(balancer, tracker);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private void call(LatencyAwareLoadBalancer balancer, InstanceLoadTracker tracker) throws Exception {
+        Request<Object> request = new DefaultRequest<>(new DefaultRequestContext());
+        Response<ServiceInstance> response = balancer.choose(request).block();
+        tracker.onStartRequest(request, response);
+        ServiceInstance instance = response.getServer();
+        HttpResponse<String> answer = http.send(
+                HttpRequest.newBuilder(URI.create("http://" + instance.getHost() + ":" + instance.getPort() + "/products/1"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        tracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response, answer));
+    }
+}
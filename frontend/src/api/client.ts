@@ -49,8 +49,30 @@ export async function listProducts(): Promise<Product[]> {
     return res.data;
 }
 
-export async function listOrders(): Promise<Order[]> {
-    const res = await api.get('/orders');
+export type ProductSearchResult = {
+    total: number;
+    items: Product[];
+    nextAfter?: number | null;
+    facets: Record<string, Record<string, number>>;
+};
+
+export async function searchProducts(q: string, size = 50): Promise<ProductSearchResult> {
+    const res = await api.get('/products/search', { params: { q, size } });
+    return res.data;
+}
+
+export async function suggestProducts(q: string): Promise<string[]> {
+    const res = await api.get('/products/suggest', { params: { q } });
+    return res.data;
+}
+
+export type OrderPage = {
+    items: Order[];
+    nextCursor?: string | null;
+};
+
+export async function listOrders(cursor?: string): Promise<OrderPage> {
+    const res = await api.get('/orders', { params: { cursor } });
     return res.data;
 }
 
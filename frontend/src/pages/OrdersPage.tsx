@@ -3,6 +3,8 @@ import { createOrder, listOrders, listProducts, type Order, type OrderItemInput,
 
 export default function OrdersPage() {
     const [orders, setOrders] = useState<Order[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | null>(null);
+    const [loadingMore, setLoadingMore] = useState<boolean>(false);
     const [products, setProducts] = useState<Product[]>([]);
     const [selectedItems, setSelectedItems] = useState<Record<string, number>>({});
     const [loading, setLoading] = useState<boolean>(false);
@@ -13,7 +15,8 @@ export default function OrdersPage() {
         setLoading(true);
         Promise.all([listOrders(), listProducts()])
             .then(([ordersRes, productsRes]) => {
-                setOrders(ordersRes);
+                setOrders(ordersRes.items);
+                setNextCursor(ordersRes.nextCursor ?? null);
                 setProducts(productsRes);
             })
             .catch((e) => setError(e?.message ?? 'Failed to load data'))
@@ -32,6 +35,25 @@ export default function OrdersPage() {
         setSelectedItems((prev) => ({ ...prev, [productId]: qty }));
     }
 
+    // Orders come newest first, a page at a time; the cursor picks up after the last one shown.
+    async function onLoadMore() {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        setError(null);
+        try {
+            const page = await listOrders(nextCursor);
+            setOrders((prev) => {
+                const shown = new Set(prev.map((o) => o.id));
+                return [...prev, ...page.items.filter((o) => !shown.has(o.id))];
+            });
+            setNextCursor(page.nextCursor ?? null);
+        } catch (e: any) {
+            setError(e?.message ?? 'Failed to load orders');
+        } finally {
+            setLoadingMore(false);
+        }
+    }
+
     async function onSubmit(e: FormEvent) {
         e.preventDefault();
         const items: OrderItemInput[] = Object.entries(selectedItems)
@@ -104,6 +126,11 @@ export default function OrdersPage() {
                     ))}
                 </ul>
             )}
+            {nextCursor && (
+                <button className="btn" type="button" onClick={onLoadMore} disabled={loadingMore}>
+                    {loadingMore ? 'Loading...' : 'Load more'}
+                </button>
+            )}
         </div>
     );
 }
@@ -1,26 +1,70 @@
-import { useEffect, useState } from 'react';
-import { listProducts, type Product } from '@/api/client';
+import { type FormEvent, useEffect, useRef, useState } from 'react';
+import { listProducts, searchProducts, suggestProducts, type Product } from '@/api/client';
 
 export default function ProductsPage() {
     const [products, setProducts] = useState<Product[]>([]);
     const [loading, setLoading] = useState<boolean>(false);
     const [error, setError] = useState<string | null>(null);
+    const [query, setQuery] = useState<string>('');
+    const [suggestions, setSuggestions] = useState<string[]>([]);
+    const latestPrefix = useRef<string>('');
 
-    useEffect(() => {
+    function load(q: string) {
         setLoading(true);
-        listProducts()
+        setError(null);
+        const request = q.trim() ? searchProducts(q).then((res) => res.items) : listProducts();
+        request
             .then(setProducts)
             .catch((e) => setError(e?.message ?? 'Failed to load products'))
             .finally(() => setLoading(false));
+    }
+
+    useEffect(() => {
+        load('');
     }, []);
 
-    if (loading) return <p>Loading products...</p>;
-    if (error) return <p style={{ color: 'crimson' }}>{error}</p>;
+    function onQueryChange(value: string) {
+        setQuery(value);
+        latestPrefix.current = value;
+        if (!value.trim()) {
+            setSuggestions([]);
+            return;
+        }
+        // a slower answer for an earlier keystroke must not replace the current one
+        suggestProducts(value)
+            .then((names) => {
+                if (latestPrefix.current === value) setSuggestions(names);
+            })
+            .catch(() => setSuggestions([]));
+    }
+
+    function onSearch(e: FormEvent) {
+        e.preventDefault();
+        load(query);
+    }
 
     return (
         <div>
             <h2 style={{ marginBottom: 12 }}>Products</h2>
-            {products.length === 0 ? (
+            <form onSubmit={onSearch} style={{ marginBottom: 12 }}>
+                <input
+                    type="search"
+                    placeholder="Search products"
+                    list="product-suggestions"
+                    value={query}
+                    onChange={(e) => onQueryChange(e.target.value)}
+                />
+                <datalist id="product-suggestions">
+                    {suggestions.map((name) => (
+                        <option key={name} value={name} />
+                    ))}
+                </datalist>
+            </form>
+            {loading ? (
+                <p>Loading products...</p>
+            ) : error ? (
+                <p style={{ color: 'crimson' }}>{error}</p>
+            ) : products.length === 0 ? (
                 <p className="muted">No products.</p>
             ) : (
                 <ul className="grid products" style={{ padding: 0, listStyle: 'none' }}>
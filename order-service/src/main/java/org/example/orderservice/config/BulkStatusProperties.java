@@ -0,0 +1,13 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.bulk-status")
+public class BulkStatusProperties {
+    private int chunkSize = 500;
+    private int maxOrders = 10_000;
+}
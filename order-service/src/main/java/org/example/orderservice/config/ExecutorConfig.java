@@ -0,0 +1,25 @@
+package org.example.orderservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ExecutorConfig {
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService productLookupExecutor(ProductLookupProperties properties) {
+        return Executors.newFixedThreadPool(properties.getPoolSize(),
+                new CustomizableThreadFactory("product-lookup-"));
+    }
+
+    // Separate from productLookupExecutor: lookups running on that pool block on these calls.
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService productHedgeExecutor(ProductClientProperties properties) {
+        return Executors.newFixedThreadPool(properties.getHedging().getPoolSize(),
+                new CustomizableThreadFactory("product-hedge-"));
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.orderservice.config;
+
+import feign.RequestInterceptor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+@Configuration
+public class FeignAuthConfig {
+
+    // Product-service only lets authenticated callers write, so the caller's token is passed along.
+    @Bean
+    public RequestInterceptor authorizationForwardingInterceptor() {
+        return template -> {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                String authorization = attributes.getRequest().getHeader(HttpHeaders.AUTHORIZATION);
+                if (authorization != null) {
+                    template.header(HttpHeaders.AUTHORIZATION, authorization);
+                }
+            }
+        };
+    }
+}
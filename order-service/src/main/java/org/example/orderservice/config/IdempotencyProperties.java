@@ -0,0 +1,15 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.idempotency")
+public class IdempotencyProperties {
+    private long ttlMs = 86_400_000;
+    private int maxEntries = 10_000;
+    private long waitTimeoutMs = 30_000;
+    private long purgeIntervalMs = 600_000;
+}
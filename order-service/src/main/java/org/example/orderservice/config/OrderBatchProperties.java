@@ -0,0 +1,12 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.batch")
+public class OrderBatchProperties {
+    private int maxOrders = 500;
+}
@@ -0,0 +1,14 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.listing")
+public class OrderListingProperties {
+    private int defaultPageSize = 20;
+    private int maxPageSize = 100;
+    private int exportFlushEvery = 500;
+}
@@ -0,0 +1,21 @@
+package org.example.orderservice.config;
+
+import org.example.orderservice.service.OrderNumberGenerator;
+import org.example.orderservice.service.RandomOrderNumberGenerator;
+import org.example.orderservice.service.UuidV7OrderNumberGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderNumberConfig {
+
+    @Bean
+    @ConditionalOnMissingBean(OrderNumberGenerator.class)
+    public OrderNumberGenerator orderNumberGenerator(OrderNumberProperties properties) {
+        return switch (properties.getGenerator()) {
+            case UUID_V7 -> new UuidV7OrderNumberGenerator();
+            case RANDOM -> new RandomOrderNumberGenerator();
+        };
+    }
+}
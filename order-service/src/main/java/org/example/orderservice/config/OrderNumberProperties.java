@@ -0,0 +1,17 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.order-number")
+public class OrderNumberProperties {
+
+    public enum Generator {
+        UUID_V7, RANDOM
+    }
+
+    private Generator generator = Generator.UUID_V7;
+}
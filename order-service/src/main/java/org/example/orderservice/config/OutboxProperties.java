@@ -0,0 +1,15 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.outbox")
+public class OutboxProperties {
+    private int batchSize = 500;
+    private long pollIntervalMs = 200;
+    private long sendTimeoutMs = 10_000;
+    private long leaseMs = 30_000;
+}
@@ -13,4 +13,5 @@ public class Product {
     private String category;
     private String imageUrl;
     private String rating;
+    private Long version;
 }
@@ -0,0 +1,16 @@
+package org.example.orderservice.config;
+
+import org.springframework.cloud.openfeign.CircuitBreakerNameResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ProductClientConfig {
+
+    // One circuit breaker and one bulkhead per target service rather than per Feign method, so every call to
+    // product-service shares the same failure statistics and concurrency limit.
+    @Bean
+    public CircuitBreakerNameResolver circuitBreakerNameResolver() {
+        return (feignClientName, target, method) -> feignClientName;
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.product-client")
+public class ProductClientProperties {
+    // empty resolves product-service through the discovery client and load balancer
+    private String url = "";
+    private Hedging hedging = new Hedging();
+
+    @Data
+    public static class Hedging {
+        private boolean enabled = false;
+        // a second GET is sent once the first has been outstanding longer than this percentile of recent latencies
+        private double percentile = 0.95;
+        private long minDelayMs = 10;
+        private int window = 512;
+        private int minSamples = 50;
+        // the percentile is recomputed once per this many new samples rather than on every call
+        private int recomputeEvery = 64;
+        private int poolSize = 32;
+    }
+}
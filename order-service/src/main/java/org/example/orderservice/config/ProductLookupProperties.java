@@ -0,0 +1,20 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.product-lookup")
+public class ProductLookupProperties {
+
+    public enum Mode {
+        BATCH, CONCURRENT
+    }
+
+    private Mode mode = Mode.BATCH;
+    private int maxConcurrency = 8;
+    private long deadlineMs = 2000;
+    private int poolSize = 32;
+}
@@ -0,0 +1,14 @@
+package org.example.orderservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "orders.product-replica")
+public class ProductReplicaProperties {
+    private boolean enabled = true;
+    private int maxSize = 100_000;
+    private long maxAgeMs = 60_000;
+}
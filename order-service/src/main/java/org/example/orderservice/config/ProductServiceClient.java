@@ -3,9 +3,27 @@ package org.example.orderservice.config;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
-@FeignClient(name = "product-service",url = "http://localhost:8081")
+import java.util.List;
+import java.util.UUID;
+
+@FeignClient(name = "product-service", url = "${orders.product-client.url:}",
+        fallbackFactory = ProductServiceClientFallbackFactory.class)
 public interface ProductServiceClient {
     @GetMapping("/products/{id}")
     Product getProduct(@PathVariable Long id);
+
+    @PostMapping("/products/batch")
+    List<Product> getProducts(@RequestBody List<Long> ids);
+
+    @PostMapping("/products/reservations")
+    void reserve(@RequestBody ReservationRequest request);
+
+    @PostMapping("/products/reservations/batch")
+    List<ReservationResult> reserveAll(@RequestBody ReservationBatchRequest request);
+
+    @PostMapping("/products/reservations/{orderNumber}/release")
+    void releaseReservation(@PathVariable UUID orderNumber);
 }
@@ -0,0 +1,59 @@
+package org.example.orderservice.config;
+
+import feign.FeignException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.exceptions.ProductLookupException;
+import org.springframework.cloud.openfeign.FallbackFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Used when a call fails, is rejected by the bulkhead, or the circuit is open. Answers from product-service
+ * itself (4xx) are passed through unchanged, so callers still see conflicts and missing products as before.
+ */
+@Slf4j
+@Component
+public class ProductServiceClientFallbackFactory implements FallbackFactory<ProductServiceClient> {
+
+    @Override
+    public ProductServiceClient create(Throwable cause) {
+        return new ProductServiceClient() {
+            @Override
+            public Product getProduct(Long id) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public List<Product> getProducts(List<Long> ids) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public void reserve(ReservationRequest request) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public List<ReservationResult> reserveAll(ReservationBatchRequest request) {
+                throw unavailable(cause);
+            }
+
+            @Override
+            public void releaseReservation(UUID orderNumber) {
+                if (cause instanceof FeignException.FeignClientException clientError) {
+                    throw clientError;
+                }
+                log.warn("Could not release reservation for order {}, it will expire: {}", orderNumber, cause.toString());
+            }
+        };
+    }
+
+    private static RuntimeException unavailable(Throwable cause) {
+        if (cause instanceof FeignException.FeignClientException clientError) {
+            return clientError;
+        }
+        return new ProductLookupException("Product service unavailable: " + cause.getMessage(), cause);
+    }
+}
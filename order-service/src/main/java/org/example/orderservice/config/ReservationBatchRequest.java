@@ -0,0 +1,14 @@
+package org.example.orderservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationBatchRequest {
+    private List<ReservationRequest> reservations;
+}
@@ -0,0 +1,17 @@
+package org.example.orderservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.commonevents.StockLine;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationRequest {
+    private UUID orderNumber;
+    private List<StockLine> lines;
+}
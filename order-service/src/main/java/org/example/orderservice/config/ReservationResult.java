@@ -0,0 +1,18 @@
+package org.example.orderservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// status is HELD or CONFIRMED when the order's stock is reserved, REJECTED when it could not be.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationResult {
+    private UUID orderNumber;
+    private String status;
+    private Instant expiresAt;
+}
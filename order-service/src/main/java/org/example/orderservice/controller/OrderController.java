@@ -1,14 +1,25 @@
 package org.example.orderservice.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.example.orderservice.dto.BulkStatusUpdateRequestDto;
+import org.example.orderservice.dto.BulkStatusUpdateResponseDto;
+import org.example.orderservice.dto.OrderBatchResultDto;
+import org.example.orderservice.dto.OrderPageDto;
 import org.example.orderservice.dto.OrderRequestDto;
 import org.example.orderservice.dto.OrderResponseDto;
 import org.example.orderservice.exceptions.OutOfStockException;
 import org.example.orderservice.model.Status;
+import org.example.orderservice.service.BulkOrderStatusService;
+import org.example.orderservice.service.OrderRequestDeduplicator;
 import org.example.orderservice.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -16,10 +27,26 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
     private final OrderService orderService;
+    private final OrderRequestDeduplicator orderRequestDeduplicator;
+    private final BulkOrderStatusService bulkOrderStatusService;
 
     @GetMapping
-    public List<OrderResponseDto> getAllOrders() {
-        return orderService.getAllOrders();
+    public OrderPageDto getOrders(@RequestParam(required = false) Status status,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                  @RequestParam(required = false) String cursor,
+                                  @RequestParam(required = false) Integer size) {
+        return orderService.getOrders(status, from, to, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) Status status,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = out -> orderService.exportOrders(status, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -29,8 +56,14 @@ public class OrderController {
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public OrderResponseDto createOrder(@RequestBody OrderRequestDto orderRequestDto) throws OutOfStockException {
-        return orderService.createOrder(orderRequestDto);
+    public OrderResponseDto createOrder(@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                        @RequestBody OrderRequestDto orderRequestDto) throws OutOfStockException {
+        return orderRequestDeduplicator.createOrder(idempotencyKey, orderRequestDto);
+    }
+
+    @PostMapping("/batch")
+    public List<OrderBatchResultDto> createOrders(@RequestBody List<OrderRequestDto> orderRequestDtos) {
+        return orderService.createOrders(orderRequestDtos);
     }
 
     @PatchMapping("/{id}/status")
@@ -38,6 +71,11 @@ public class OrderController {
         return orderService.updateOrderStatus(id, status);
     }
 
+    @PatchMapping("/status")
+    public BulkStatusUpdateResponseDto updateOrderStatuses(@RequestBody BulkStatusUpdateRequestDto request) {
+        return bulkOrderStatusService.updateStatuses(request);
+    }
+
     @PostMapping("/{id}/cancel")
     @ResponseStatus(HttpStatus.OK)
     public void cancelOrder(@PathVariable Long id) {
@@ -0,0 +1,22 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.orderservice.model.Status;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusResultDto {
+
+    public enum Outcome {
+        UPDATED, UNCHANGED, ILLEGAL_TRANSITION, NOT_FOUND
+    }
+
+    private Long id;
+    private Outcome outcome;
+    private Status previousStatus;
+}
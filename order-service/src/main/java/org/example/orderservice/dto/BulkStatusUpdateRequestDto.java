@@ -0,0 +1,26 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.orderservice.model.Status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Either {@code ids} or a filter on current status and {@code orderDate} range selects the orders to move.
+ * A filter that matches more orders than one request may move is continued by passing the previous
+ * response's {@code nextAfterId} as {@code afterId}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusUpdateRequestDto {
+    private List<Long> ids;
+    private Status currentStatus;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private Long afterId;
+    private Status status;
+}
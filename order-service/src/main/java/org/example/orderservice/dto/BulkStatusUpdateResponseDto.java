@@ -0,0 +1,23 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * {@code truncated} is set when the filter matched more orders than were processed; the rest start after
+ * {@code nextAfterId}.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkStatusUpdateResponseDto {
+    private int updated;
+    private List<BulkStatusResultDto> results;
+    private boolean truncated;
+    private Long nextAfterId;
+}
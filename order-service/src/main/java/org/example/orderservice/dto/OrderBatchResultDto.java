@@ -0,0 +1,20 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one entry of {@code POST /orders/batch}; {@code index} is its position in the request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderBatchResultDto {
+    private int index;
+    private boolean created;
+    private OrderResponseDto order;
+    private String error;
+}
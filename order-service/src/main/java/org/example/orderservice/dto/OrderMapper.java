@@ -6,7 +6,10 @@ import org.example.orderservice.model.OrderItem;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Component
@@ -49,4 +52,43 @@ public class OrderMapper {
                 .totalPrice(order.getTotalPrice())
                 .build();
     }
+
+    public List<OrderResponseDto> fromRows(List<OrderRow> rows) {
+        List<OrderResponseDto> orders = new ArrayList<>();
+        fromRows(rows.iterator(), orders::add);
+        return orders;
+    }
+
+    // Rows must arrive grouped by order id, as the joined queries return them; each order is handed to the
+    // consumer as soon as its last row has been read.
+    public void fromRows(Iterator<OrderRow> rows, Consumer<OrderResponseDto> consumer) {
+        OrderResponseDto current = null;
+        while (rows.hasNext()) {
+            OrderRow row = rows.next();
+            if (current == null || !current.getId().equals(row.getId())) {
+                if (current != null) {
+                    consumer.accept(current);
+                }
+                current = OrderResponseDto.builder()
+                        .id(row.getId())
+                        .orderDate(row.getOrderDate())
+                        .orderNumber(row.getOrderNumber())
+                        .items(new ArrayList<>())
+                        .status(row.getStatus())
+                        .totalPrice(row.getTotalPrice())
+                        .build();
+            }
+            if (row.getItemId() != null) {
+                current.getItems().add(OrderItemResponseDto.builder()
+                        .id(row.getItemId())
+                        .productId(row.getProductId())
+                        .quantity(row.getQuantity())
+                        .price(row.getPrice())
+                        .build());
+            }
+        }
+        if (current != null) {
+            consumer.accept(current);
+        }
+    }
 }
@@ -0,0 +1,26 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.orderservice.model.Status;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One row of an order left-joined to its items. Item columns are null for an order without items.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderRow {
+    private final Long id;
+    private final UUID orderNumber;
+    private final Status status;
+    private final BigDecimal totalPrice;
+    private final LocalDateTime orderDate;
+    private final Long itemId;
+    private final Long productId;
+    private final Integer quantity;
+    private final BigDecimal price;
+}
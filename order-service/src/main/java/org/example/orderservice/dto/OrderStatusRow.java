@@ -0,0 +1,15 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.orderservice.model.Status;
+
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class OrderStatusRow {
+    private final Long id;
+    private final UUID orderNumber;
+    private final Status status;
+}
@@ -0,0 +1,11 @@
+package org.example.orderservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class OutboxKeyRow {
+    private final Long id;
+    private final String messageKey;
+}
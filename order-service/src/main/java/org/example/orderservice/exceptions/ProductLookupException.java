@@ -0,0 +1,15 @@
+package org.example.orderservice.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProductLookupException extends RuntimeException {
+    public ProductLookupException(String message) {
+        super(message);
+    }
+
+    public ProductLookupException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
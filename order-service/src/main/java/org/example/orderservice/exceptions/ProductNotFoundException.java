@@ -0,0 +1,7 @@
+package org.example.orderservice.exceptions;
+
+public class ProductNotFoundException extends RuntimeException {
+    public ProductNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -16,7 +16,8 @@ import java.math.BigDecimal;
 @Table(name = "order_items")
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_seq")
+    @SequenceGenerator(name = "order_items_seq", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
     @Column(name = "product_id", nullable = false)
     private Long productId;
@@ -27,6 +28,9 @@ public class OrderItem {
     @Column(precision = 19, scale = 2)
     private BigDecimal price;
 
+    @Column(name = "stock_confirmed", nullable = false)
+    private boolean stockConfirmed;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
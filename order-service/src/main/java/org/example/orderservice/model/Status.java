@@ -1,5 +1,34 @@
 package org.example.orderservice.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Status {
-    PENDING,CREATED, PAID, SHIPPED, DELIVERED, CANCELLED
+    PENDING,CREATED, PAID, SHIPPED, DELIVERED, CANCELLED;
+
+    // Transitions open to manual and bulk updates. A pending order is only confirmed by the stock result listener,
+    // once its reservation is settled, so it can be cancelled here but not moved on.
+    public Set<Status> next() {
+        return switch (this) {
+            case PENDING -> EnumSet.of(CANCELLED);
+            case CREATED -> EnumSet.of(PAID, CANCELLED);
+            case PAID -> EnumSet.of(SHIPPED, CANCELLED);
+            case SHIPPED -> EnumSet.of(DELIVERED);
+            case DELIVERED, CANCELLED -> EnumSet.noneOf(Status.class);
+        };
+    }
+
+    public boolean canTransitionTo(Status target) {
+        return next().contains(target);
+    }
+
+    public static Set<Status> sourcesOf(Status target) {
+        Set<Status> sources = EnumSet.noneOf(Status.class);
+        for (Status status : values()) {
+            if (status.canTransitionTo(target)) {
+                sources.add(status);
+            }
+        }
+        return sources;
+    }
 }
@@ -0,0 +1,25 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.model.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByIdempotencyKeyAndExpiresAtAfter(String idempotencyKey, Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.idempotencyKey = :key and k.expiresAt <= :now")
+    int deleteExpired(@Param("key") String idempotencyKey, @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from IdempotencyKey k where k.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") Instant now);
+}
@@ -1,14 +1,108 @@
 package org.example.orderservice.repository;
 
+import org.example.orderservice.dto.OrderRow;
+import org.example.orderservice.dto.OrderStatusRow;
 import org.example.orderservice.model.Order;
+import org.example.orderservice.model.Status;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Integer> {
 
     Optional<Order> findById(Long id);
 
+    String FILTERS = "(:status is null or o.status = :status) " +
+            "and (:from is null or o.orderDate >= :from) " +
+            "and (:to is null or o.orderDate < :to) ";
+
+    String ORDER_ROW = "select new org.example.orderservice.dto.OrderRow(o.id, o.orderNumber, o.status, " +
+            "o.totalPrice, o.orderDate, i.id, i.productId, i.quantity, i.price) from Order o left join o.items i ";
+
+    @EntityGraph(attributePaths = "items")
+    Optional<Order> findWithItemsById(Long id);
+
+    // Newest first; (order_date, id) is unique, so the cursor always points at exactly one row.
+    @Query("select o.id from Order o where " + FILTERS + "order by o.orderDate desc, o.id desc")
+    List<Long> findFirstPageIds(@Param("status") Status status,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                Limit limit);
+
+    @Query("select o.id from Order o where " + FILTERS +
+            "and (o.orderDate < :afterDate or (o.orderDate = :afterDate and o.id < :afterId)) " +
+            "order by o.orderDate desc, o.id desc")
+    List<Long> findPageIdsAfter(@Param("status") Status status,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                @Param("afterDate") LocalDateTime afterDate,
+                                @Param("afterId") Long afterId,
+                                Limit limit);
+
+    @Query(ORDER_ROW + "where o.id in :ids order by o.orderDate desc, o.id desc, i.id")
+    List<OrderRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(ORDER_ROW + "where " + FILTERS + "order by o.orderDate desc, o.id desc, i.id")
+    Stream<OrderRow> streamRows(@Param("status") Status status,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to);
+
+    @Query("select o.id from Order o where " + FILTERS + "and (:afterId is null or o.id > :afterId) order by o.id")
+    List<Long> findIdsMatching(@Param("status") Status status,
+                               @Param("from") LocalDateTime from,
+                               @Param("to") LocalDateTime to,
+                               @Param("afterId") Long afterId,
+                               Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new org.example.orderservice.dto.OrderStatusRow(o.id, o.orderNumber, o.status) " +
+            "from Order o where o.id in :ids")
+    List<OrderStatusRow> findStatusRowsForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("select o.id from Order o where o.id in :ids and o.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Status status);
+
+    @Modifying
+    @Query("update OrderItem i set i.stockConfirmed = true where i.order.id = :orderId and i.productId in :productIds")
+    int confirmItems(@Param("orderId") Long orderId, @Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status = :from and not exists " +
+            "(select i.id from OrderItem i where i.order = o and i.stockConfirmed = false)")
+    int updateStatusWhenStockConfirmed(@Param("ids") Collection<Long> ids,
+                                       @Param("from") Status from,
+                                       @Param("to") Status to);
+
+    @Modifying
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Status from, @Param("to") Status to);
+
+    @Modifying
+    @Query("update Order o set o.status = :to where o.id in :ids and o.status in :from")
+    int updateStatusFrom(@Param("ids") Collection<Long> ids,
+                         @Param("from") Collection<Status> from,
+                         @Param("to") Status to);
+
 }
@@ -0,0 +1,33 @@
+package org.example.orderservice.repository;
+
+import org.example.orderservice.dto.OutboxKeyRow;
+import org.example.orderservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Rows another relay is claiming right now are skipped rather than waited for. Native because Hibernate's H2
+    // dialect drops SKIP LOCKED from a PESSIMISTIC_WRITE lock.
+    @Query(value = "select * from outbox_events where claimed_until is null or claimed_until < :now " +
+            "order by id fetch first :limit rows only for update skip locked", nativeQuery = true)
+    List<OutboxEvent> findClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("select new org.example.orderservice.dto.OutboxKeyRow(e.id, e.messageKey) from OutboxEvent e " +
+            "where e.messageKey in :keys and e.id <= :upTo order by e.id")
+    List<OutboxKeyRow> findKeyRows(@Param("keys") Collection<String> keys, @Param("upTo") Long upTo);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.claimedBy = null, e.claimedUntil = null " +
+            "where e.id in :ids and e.claimedBy = :claim")
+    int release(@Param("ids") Collection<Long> ids, @Param("claim") UUID claim);
+}
@@ -0,0 +1,118 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonevents.StockReleaseEvent;
+import org.example.orderservice.config.BulkStatusProperties;
+import org.example.orderservice.dto.BulkStatusResultDto;
+import org.example.orderservice.dto.BulkStatusResultDto.Outcome;
+import org.example.orderservice.dto.BulkStatusUpdateRequestDto;
+import org.example.orderservice.dto.BulkStatusUpdateResponseDto;
+import org.example.orderservice.dto.OrderStatusRow;
+import org.example.orderservice.exceptions.InvalidStatusUpdateException;
+import org.example.orderservice.model.Status;
+import org.example.orderservice.repository.OrderRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BulkOrderStatusService {
+    private final OrderRepository orderRepository;
+    private final OutboxService outboxService;
+    private final BulkStatusProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkStatusUpdateResponseDto updateStatuses(BulkStatusUpdateRequestDto request) {
+        Status target = request.getStatus();
+        if (target == null) {
+            throw new InvalidStatusUpdateException("Target status is required");
+        }
+        List<Long> ids = resolveIds(request);
+        boolean truncated = ids.size() > properties.getMaxOrders();
+        if (truncated) {
+            ids = ids.subList(0, properties.getMaxOrders());
+        }
+
+        List<BulkStatusResultDto> results = new ArrayList<>(ids.size());
+        int chunkSize = properties.getChunkSize();
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            results.addAll(transactionTemplate.execute(tx -> updateChunk(chunk, target)));
+        }
+        int updated = (int) results.stream().filter(result -> result.getOutcome() == Outcome.UPDATED).count();
+        log.info("Bulk status update to {}: {} of {} orders updated{}", target, updated, ids.size(),
+                truncated ? ", more orders match the filter" : "");
+        return BulkStatusUpdateResponseDto.builder()
+                .updated(updated)
+                .results(results)
+                .truncated(truncated)
+                .nextAfterId(truncated ? ids.get(ids.size() - 1) : null)
+                .build();
+    }
+
+    // A filter fetches one id past the limit, so a request that matches more than max-orders is reported as
+    // truncated instead of looking complete.
+    private List<Long> resolveIds(BulkStatusUpdateRequestDto request) {
+        int maxOrders = properties.getMaxOrders();
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = List.copyOf(new LinkedHashSet<>(request.getIds()));
+            if (ids.size() > maxOrders) {
+                throw new InvalidStatusUpdateException("At most " + maxOrders + " orders can be updated at once");
+            }
+            return ids;
+        }
+        if (request.getCurrentStatus() == null && request.getFrom() == null && request.getTo() == null) {
+            throw new InvalidStatusUpdateException("Either ids or a filter is required");
+        }
+        return orderRepository.findIdsMatching(request.getCurrentStatus(), request.getFrom(), request.getTo(),
+                request.getAfterId(), Limit.of(maxOrders + 1));
+    }
+
+    // The rows are locked by the read, so the guarded UPDATE matches exactly the ids judged legal here.
+    private List<BulkStatusResultDto> updateChunk(List<Long> chunk, Status target) {
+        Map<Long, OrderStatusRow> rows = orderRepository.findStatusRowsForUpdate(chunk).stream()
+                .collect(Collectors.toMap(OrderStatusRow::getId, Function.identity()));
+
+        List<BulkStatusResultDto> results = new ArrayList<>(chunk.size());
+        List<OrderStatusRow> eligible = new ArrayList<>();
+        for (Long id : chunk) {
+            OrderStatusRow row = rows.get(id);
+            Outcome outcome;
+            if (row == null) {
+                outcome = Outcome.NOT_FOUND;
+            } else if (row.getStatus() == target) {
+                outcome = Outcome.UNCHANGED;
+            } else if (!row.getStatus().canTransitionTo(target)) {
+                outcome = Outcome.ILLEGAL_TRANSITION;
+            } else {
+                outcome = Outcome.UPDATED;
+                eligible.add(row);
+            }
+            results.add(BulkStatusResultDto.builder()
+                    .id(id)
+                    .outcome(outcome)
+                    .previousStatus(row == null ? null : row.getStatus())
+                    .build());
+        }
+
+        if (!eligible.isEmpty()) {
+            orderRepository.updateStatusFrom(eligible.stream().map(OrderStatusRow::getId).toList(),
+                    Status.sourcesOf(target), target);
+            if (target == Status.CANCELLED) {
+                eligible.forEach(row -> outboxService.enqueue("stock-release", row.getOrderNumber().toString(),
+                        new StockReleaseEvent(row.getId(), row.getOrderNumber())));
+            }
+        }
+        return results;
+    }
+}
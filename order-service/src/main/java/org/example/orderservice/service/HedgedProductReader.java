@@ -0,0 +1,151 @@
+package org.example.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.orderservice.config.Product;
+import org.example.orderservice.config.ProductClientProperties;
+import org.example.orderservice.config.ProductServiceClient;
+import org.example.orderservice.exceptions.ProductLookupException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code GET /products/{id}} with optional hedging: when the first request is still outstanding after the
+ * configured percentile of recent latencies, a second one is sent and whichever answers first wins.
+ */
+@Component
+public class HedgedProductReader {
+    private final ProductServiceClient client;
+    private final ExecutorService productHedgeExecutor;
+    private final ProductClientProperties.Hedging properties;
+    private final Counter hedges;
+    private final Counter hedgeWins;
+
+    // ring buffer of recent successful latencies in nanoseconds
+    private final AtomicLongArray latencies;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int recomputeEvery;
+    // percentile of the window as of the last recompute, negative until there were enough samples
+    private volatile long hedgeDelayNanos = -1;
+
+    public HedgedProductReader(ProductServiceClient client,
+                               @Qualifier("productHedgeExecutor") ExecutorService productHedgeExecutor,
+                               ProductClientProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.client = client;
+        this.productHedgeExecutor = productHedgeExecutor;
+        this.properties = properties.getHedging();
+        this.latencies = new AtomicLongArray(Math.max(1, this.properties.getWindow()));
+        this.recomputeEvery = Math.max(1, this.properties.getRecomputeEvery());
+        this.hedges = Counter.builder("product.client.hedges")
+                .description("Second GET /products/{id} requests sent")
+                .register(meterRegistry);
+        this.hedgeWins = Counter.builder("product.client.hedge.wins")
+                .description("Hedged requests that answered before the original")
+                .register(meterRegistry);
+        Gauge.builder("product.client.hedge.delay", this, reader -> {
+                    long nanos = reader.hedgeDelayNanos();
+                    return nanos < 0 ? Double.NaN : nanos / 1_000_000.0;
+                })
+                .description("Current hedge delay in milliseconds, NaN until enough samples were seen")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public Product getProduct(Long id) {
+        long delay = properties.isEnabled() ? hedgeDelayNanos() : -1;
+        if (delay < 0) {
+            return timedGet(id);
+        }
+
+        CompletableFuture<Product> primary = CompletableFuture.supplyAsync(() -> timedGet(id), productHedgeExecutor);
+        try {
+            return primary.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            hedges.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductLookupException("Interrupted while looking up product " + id, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        CompletableFuture<Product> hedge = CompletableFuture.supplyAsync(() -> timedGet(id), productHedgeExecutor);
+        CompletableFuture<Product> winner = new CompletableFuture<>();
+        primary.thenAccept(winner::complete);
+        hedge.thenAccept(product -> {
+            if (winner.complete(product)) {
+                hedgeWins.increment();
+            }
+        });
+        // Only fails the lookup once both requests have failed.
+        CompletableFuture.allOf(primary, hedge).whenComplete((ignored, error) -> {
+            if (error != null) {
+                winner.completeExceptionally(error);
+            }
+        });
+        try {
+            return winner.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductLookupException("Interrupted while looking up product " + id, e);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private Product timedGet(Long id) {
+        long start = System.nanoTime();
+        Product product = client.getProduct(id);
+        record(System.nanoTime() - start);
+        return product;
+    }
+
+    // Lock-free on the request path: the percentile is only recomputed by the call that completes every
+    // recompute-every'th sample (and the one that reaches min-samples), and readers see the cached value.
+    private void record(long nanos) {
+        long count = recorded.getAndIncrement() + 1;
+        latencies.set((int) ((count - 1) % latencies.length()), nanos);
+        if (count >= properties.getMinSamples() && (count % recomputeEvery == 0 || count == properties.getMinSamples())) {
+            recompute(count);
+        }
+    }
+
+    private synchronized void recompute(long count) {
+        int samples = (int) Math.min(count, latencies.length());
+        long[] sorted = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.min(samples - 1, Math.ceil(properties.getPercentile() * samples) - 1);
+        hedgeDelayNanos = Math.max(sorted[Math.max(0, rank)], TimeUnit.MILLISECONDS.toNanos(properties.getMinDelayMs()));
+    }
+
+    // Negative while there are too few samples to trust a percentile.
+    long hedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new ProductLookupException("Product lookup failed", cause);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.dto.OrderItemRequestDto;
+import org.example.orderservice.dto.OrderRequestDto;
+import org.example.orderservice.exceptions.IdempotencyConflictException;
+import org.example.orderservice.exceptions.IdempotencyKeyReuseException;
+import org.example.orderservice.model.IdempotencyKey;
+import org.example.orderservice.repository.IdempotencyKeyRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IdempotencyService {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyProperties properties;
+
+    // SHA-256 of the order lines in request order, kept with the key so a retry can be told apart from a new
+    // request that reuses it.
+    public static String fingerprint(OrderRequestDto request) {
+        StringBuilder canonical = new StringBuilder();
+        if (request.getOrderItems() != null) {
+            for (OrderItemRequestDto item : request.getOrderItems()) {
+                canonical.append(item == null ? "null" : item.getProductId() + ":" + item.getQuantity()).append(';');
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Inserted and flushed with the order's transaction, so the unique constraint rejects a second
+    // execution of the same key on any instance and the row disappears again if the order rolls back.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public IdempotencyKey claim(String key, String requestHash) {
+        Instant now = Instant.now();
+        idempotencyKeyRepository.deleteExpired(key, now);
+        try {
+            return idempotencyKeyRepository.saveAndFlush(
+                    new IdempotencyKey(null, key, null, requestHash, now.plusMillis(properties.getTtlMs())));
+        } catch (DataIntegrityViolationException e) {
+            throw new IdempotencyConflictException("A request with Idempotency-Key " + key + " is already being processed");
+        }
+    }
+
+    // The order created for the key, if any; a key that was claimed by a different request is refused.
+    @Transactional(readOnly = true)
+    public Optional<Long> findOrderId(String key, String requestHash) {
+        return idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAtAfter(key, Instant.now())
+                .map(claimed -> {
+                    checkSameRequest(key, claimed.getRequestHash(), requestHash);
+                    return claimed.getOrderId();
+                });
+    }
+
+    public static void checkSameRequest(String key, String claimedHash, String requestHash) {
+        if (!claimedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException("Idempotency-Key " + key + " was already used for a different request");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${orders.idempotency.purge-interval-ms:600000}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteAllExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
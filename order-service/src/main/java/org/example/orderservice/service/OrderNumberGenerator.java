@@ -0,0 +1,10 @@
+package org.example.orderservice.service;
+
+import java.util.UUID;
+
+/**
+ * Source of {@code order_number} values. Implementations must be thread-safe.
+ */
+public interface OrderNumberGenerator {
+    UUID next();
+}
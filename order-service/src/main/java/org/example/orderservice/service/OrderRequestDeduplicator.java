@@ -0,0 +1,112 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.dto.OrderRequestDto;
+import org.example.orderservice.dto.OrderResponseDto;
+import org.example.orderservice.exceptions.IdempotencyConflictException;
+import org.example.orderservice.exceptions.OutOfStockException;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs {@code POST /orders} at most once per {@code Idempotency-Key}. Retries of a key this instance has seen
+ * are answered from a bounded in-memory cache, and retries that arrive while the first attempt is still running
+ * wait for its result. Keys first seen elsewhere are caught by the unique constraint behind
+ * {@link IdempotencyService#claim(String, String)}. A key repeated with a different request body is refused
+ * rather than answered with the first request's order.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderRequestDeduplicator {
+    private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyProperties properties;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > properties.getMaxEntries();
+        }
+    };
+
+    private record Entry(CompletableFuture<OrderResponseDto> result, long expiresAt, String requestHash) {
+    }
+
+    public OrderResponseDto createOrder(String key, OrderRequestDto orderRequestDto) throws OutOfStockException {
+        if (key == null || key.isBlank()) {
+            return orderService.createOrder(orderRequestDto);
+        }
+
+        long now = System.currentTimeMillis();
+        String requestHash = IdempotencyService.fingerprint(orderRequestDto);
+        Entry mine = new Entry(new CompletableFuture<>(), now + properties.getTtlMs(), requestHash);
+        Entry existing;
+        synchronized (entries) {
+            existing = entries.get(key);
+            if (existing == null || existing.expiresAt() <= now) {
+                entries.put(key, mine);
+                existing = null;
+            }
+        }
+        if (existing != null) {
+            IdempotencyService.checkSameRequest(key, existing.requestHash(), requestHash);
+            return await(key, existing.result());
+        }
+
+        try {
+            OrderResponseDto response = execute(key, requestHash, orderRequestDto);
+            mine.result().complete(response);
+            return response;
+        } catch (OutOfStockException | RuntimeException e) {
+            // Failures are handed to the requests already waiting but not cached, so a later retry runs again.
+            synchronized (entries) {
+                entries.remove(key, mine);
+            }
+            mine.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private OrderResponseDto execute(String key, String requestHash, OrderRequestDto orderRequestDto)
+            throws OutOfStockException {
+        Optional<Long> orderId = idempotencyService.findOrderId(key, requestHash);
+        if (orderId.isPresent()) {
+            return orderService.getOrderById(orderId.get());
+        }
+        try {
+            return orderService.createOrder(orderRequestDto, key);
+        } catch (IdempotencyConflictException e) {
+            // Another instance claimed the key first; its order is visible once that transaction has committed.
+            return idempotencyService.findOrderId(key, requestHash)
+                    .map(orderService::getOrderById)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private OrderResponseDto await(String key, CompletableFuture<OrderResponseDto> result) throws OutOfStockException {
+        try {
+            return result.get(properties.getWaitTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted while waiting for Idempotency-Key " + key);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("A request with Idempotency-Key " + key + " is still being processed");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof OutOfStockException outOfStock) {
+                throw outOfStock;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -1,87 +1,273 @@
 package org.example.orderservice.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+import org.example.orderservice.config.OrderBatchProperties;
+import org.example.orderservice.config.OrderListingProperties;
 import org.example.orderservice.config.Product;
-import org.example.orderservice.config.ProductServiceClient;
+import org.example.orderservice.config.StockEventProperties;
 import org.example.orderservice.dto.*;
-import org.example.commonevents.StockUpdateEvent;
+import org.example.commonevents.StockLine;
+import org.example.commonevents.StockReleaseEvent;
+import org.example.commonevents.StockReservationEvent;
+import org.example.orderservice.exceptions.InvalidOrderBatchException;
 import org.example.orderservice.exceptions.OrderNotFoundException;
 import org.example.orderservice.exceptions.OutOfStockException;
+import org.example.orderservice.exceptions.ProductNotFoundException;
+import org.example.orderservice.model.IdempotencyKey;
 import org.example.orderservice.model.Order;
 import org.example.orderservice.model.OrderItem;
 import org.example.orderservice.model.Status;
 import org.example.orderservice.repository.OrderRepository;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final OrderItemMapper orderItemMapper;
-    private final KafkaTemplate<String, StockUpdateEvent> kafkaTemplate;
-    private final ProductServiceClient client;
+    private final OutboxService outboxService;
+    private final ProductLookupService productLookupService;
+    private final StockEventProperties stockEventProperties;
+    private final ReservationService reservationService;
+    private final OrderListingProperties orderListingProperties;
+    private final ObjectMapper objectMapper;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final IdempotencyService idempotencyService;
+    private final OrderBatchProperties orderBatchProperties;
 
     @Transactional
     public OrderResponseDto createOrder(OrderRequestDto orderRequestDto) throws OutOfStockException {
+        return createOrder(orderRequestDto, null);
+    }
+
+    @Transactional
+    public OrderResponseDto createOrder(OrderRequestDto orderRequestDto, String idempotencyKey) throws OutOfStockException {
+        IdempotencyKey claim = idempotencyKey == null ? null
+                : idempotencyService.claim(idempotencyKey, IdempotencyService.fingerprint(orderRequestDto));
         Order order = new Order();
         order.setStatus(Status.PENDING);
         order.setOrderDate(LocalDateTime.now());
 
-        BigDecimal totalPrice = BigDecimal.ZERO;
         List<OrderItem> items = orderRequestDto.getOrderItems().stream()
                 .map(orderItemMapper::toEntity)
                 .toList();
 
-        for (OrderItem item : items) {
-            Product product = client.getProduct(item.getProductId());
-            if (item.getQuantity() > product.getStockQuantity()) {
-                order.setStatus(Status.CANCELLED);
-                throw new OutOfStockException("Not enough product in stock");
-            }
-            item.setPrice(product.getPrice());
-            totalPrice = totalPrice.add(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
-        }
+        Map<Long, Integer> requested = items.stream()
+                .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum));
+        Map<Long, Product> products = productLookupService.fetchProducts(requested);
+        BigDecimal totalPrice = priceItems(items, requested, products, Product::getStockQuantity);
+
+        order.setOrderNumber(orderNumberGenerator.next());
+        reservationService.reserve(order.getOrderNumber(), requested);
 
-        order.setItems(items);
+        items.forEach(order::addItem);
         order.setTotalPrice(totalPrice);
         orderRepository.save(order);
+        if (claim != null) {
+            claim.setOrderId(order.getId());
+        }
         publishStockUpdate(order);
 
         return orderMapper.toDto(order);
     }
 
+    // Every order is checked against one product snapshot, drawing down a shared running stock so the batch as a
+    // whole cannot oversell it. The orders that pass are reserved with one batch call, which can still turn some of them
+    // down. Rejected orders are reported and skipped; the rest are inserted and published together.
+    @Transactional
+    public List<OrderBatchResultDto> createOrders(List<OrderRequestDto> orderRequestDtos) {
+        if (orderRequestDtos == null || orderRequestDtos.isEmpty()) {
+            throw new InvalidOrderBatchException("At least one order is required");
+        }
+        if (orderRequestDtos.size() > orderBatchProperties.getMaxOrders()) {
+            throw new InvalidOrderBatchException("At most " + orderBatchProperties.getMaxOrders() + " orders per batch");
+        }
+
+        // An order with a malformed line is turned down on its own and contributes no product ids or quantities.
+        List<List<OrderItem>> itemsPerOrder = new ArrayList<>(orderRequestDtos.size());
+        String[] invalid = new String[orderRequestDtos.size()];
+        for (int index = 0; index < orderRequestDtos.size(); index++) {
+            try {
+                itemsPerOrder.add(validItems(orderRequestDtos.get(index)));
+            } catch (InvalidOrderBatchException e) {
+                itemsPerOrder.add(List.of());
+                invalid[index] = e.getMessage();
+            }
+        }
+        Map<Long, Product> products = productLookupService.fetchProducts(itemsPerOrder.stream()
+                .flatMap(List::stream)
+                .map(OrderItem::getProductId)
+                .collect(Collectors.toSet()));
+        Map<Long, Integer> remaining = new HashMap<>();
+        products.values().forEach(product -> remaining.put(product.getId(), product.getStockQuantity()));
+
+        List<OrderBatchResultDto> results = new ArrayList<>(orderRequestDtos.size());
+        List<Order> candidates = new ArrayList<>();
+        List<Integer> candidateIndexes = new ArrayList<>();
+        Map<UUID, Map<Long, Integer>> toReserve = new LinkedHashMap<>();
+        for (int index = 0; index < itemsPerOrder.size(); index++) {
+            if (invalid[index] != null) {
+                results.add(rejected(index, invalid[index]));
+                continue;
+            }
+            List<OrderItem> items = itemsPerOrder.get(index);
+            try {
+                Map<Long, Integer> requested = items.stream()
+                        .collect(Collectors.toMap(OrderItem::getProductId, OrderItem::getQuantity, Integer::sum));
+                BigDecimal totalPrice = priceItems(items, requested, products, product -> remaining.get(product.getId()));
+
+                Order order = new Order();
+                order.setStatus(Status.PENDING);
+                order.setOrderDate(LocalDateTime.now());
+                order.setOrderNumber(orderNumberGenerator.next());
+                toReserve.put(order.getOrderNumber(), requested);
+                requested.forEach((productId, quantity) -> remaining.merge(productId, -quantity, Integer::sum));
+
+                items.forEach(order::addItem);
+                order.setTotalPrice(totalPrice);
+                candidates.add(order);
+                candidateIndexes.add(index);
+                results.add(null);
+            } catch (OutOfStockException e) {
+                results.add(rejected(index, "Not enough product in stock"));
+            } catch (ProductNotFoundException | InvalidOrderBatchException e) {
+                results.add(rejected(index, e.getMessage()));
+            }
+        }
+
+        Set<UUID> unreserved = reservationService.reserveAll(toReserve);
+        List<Order> accepted = new ArrayList<>(candidates.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            if (unreserved.contains(candidates.get(i).getOrderNumber())) {
+                results.set(candidateIndexes.get(i), rejected(candidateIndexes.get(i), "Not enough product in stock"));
+            } else {
+                accepted.add(candidates.get(i));
+                acceptedIndexes.add(candidateIndexes.get(i));
+            }
+        }
+
+        orderRepository.saveAll(accepted);
+        for (int i = 0; i < accepted.size(); i++) {
+            Order order = accepted.get(i);
+            publishStockUpdate(order);
+            results.set(acceptedIndexes.get(i), OrderBatchResultDto.builder()
+                    .index(acceptedIndexes.get(i))
+                    .created(true)
+                    .order(orderMapper.toDto(order))
+                    .build());
+        }
+        log.info("Order batch: {} of {} orders created", accepted.size(), orderRequestDtos.size());
+        return results;
+    }
+
     @Transactional(readOnly = true)
-    public List<OrderResponseDto> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(orderMapper::toDto)
-                .toList();
+    public OrderPageDto getOrders(Status status, LocalDateTime from, LocalDateTime to, String cursor, Integer size) {
+        int pageSize = Math.min(Math.max(size == null ? orderListingProperties.getDefaultPageSize() : size, 1),
+                orderListingProperties.getMaxPageSize());
+        // One extra row tells us whether there is a next page without a count query.
+        Limit limit = Limit.of(pageSize + 1);
+        List<Long> ids;
+        if (cursor == null || cursor.isBlank()) {
+            ids = orderRepository.findFirstPageIds(status, from, to, limit);
+        } else {
+            OrderCursor after = OrderCursor.decode(cursor);
+            ids = orderRepository.findPageIdsAfter(status, from, to, after.getOrderDate(), after.getId(), limit);
+        }
+
+        boolean hasNext = ids.size() > pageSize;
+        List<OrderResponseDto> page = ids.isEmpty()
+                ? List.of()
+                : orderMapper.fromRows(orderRepository.findRowsByIdIn(hasNext ? ids.subList(0, pageSize) : ids));
+        return OrderPageDto.builder()
+                .items(page)
+                .nextCursor(hasNext ? OrderCursor.after(page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    // Writes one JSON document per line while the joined rows are read. Rows are projections rather than
+    // managed entities, so nothing accumulates in the persistence context.
+    @Transactional(readOnly = true)
+    public void exportOrders(Status status, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int flushEvery = orderListingProperties.getExportFlushEvery();
+        int[] written = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+             Stream<OrderRow> rows = orderRepository.streamRows(status, from, to)) {
+            orderMapper.fromRows(rows.iterator(), order -> {
+                try {
+                    writer.writeValue(generator, order);
+                    generator.writeRaw('\n');
+                    if (++written[0] % flushEvery == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
     }
 
     @Transactional(readOnly = true)
     public OrderResponseDto getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        return orderMapper.fromRows(orderRepository.findRowsByIdIn(List.of(id))).stream()
+                .findFirst()
                 .orElseThrow(() -> new OrderNotFoundException("Order with id " + id + " not found"));
-        return orderMapper.toDto(order);
     }
 
     @Transactional
     public OrderResponseDto updateOrderStatus(Long id, Status newStatus) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> new OrderNotFoundException("Order with id " + id + " not found"));
 
         if (order.getStatus() == Status.CANCELLED) {
             throw new IllegalStateException("Cannot update a cancelled order");
         }
+        if (order.getStatus() == newStatus) {
+            return orderMapper.toDto(order);
+        }
+        if (!order.getStatus().canTransitionTo(newStatus)) {
+            throw new IllegalStateException("Cannot move order from " + order.getStatus() + " to " + newStatus);
+        }
 
         order.setStatus(newStatus);
         orderRepository.save(order);
+        if (newStatus == Status.CANCELLED) {
+            outboxService.enqueue("stock-release", order.getOrderNumber().toString(),
+                    new StockReleaseEvent(order.getId(), order.getOrderNumber()));
+        }
         return orderMapper.toDto(order);
     }
 
@@ -90,10 +276,69 @@ public class OrderService {
         updateOrderStatus(id, Status.CANCELLED);
     }
 
+    private BigDecimal priceItems(List<OrderItem> items, Map<Long, Integer> requested, Map<Long, Product> products,
+                                  ToIntFunction<Product> available) throws OutOfStockException {
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            Product product = products.get(item.getProductId());
+            if (product == null) {
+                throw new ProductNotFoundException("Product not found with id " + item.getProductId());
+            }
+            if (requested.get(item.getProductId()) > available.applyAsInt(product)) {
+                throw new OutOfStockException("Not enough product in stock");
+            }
+            item.setPrice(product.getPrice());
+            totalPrice = totalPrice.add(product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        }
+        return totalPrice;
+    }
+
+    private List<OrderItem> validItems(OrderRequestDto dto) {
+        if (dto == null || dto.getOrderItems() == null || dto.getOrderItems().isEmpty()) {
+            throw new InvalidOrderBatchException("Order has no items");
+        }
+        for (OrderItemRequestDto item : dto.getOrderItems()) {
+            if (item == null || item.getProductId() == null) {
+                throw new InvalidOrderBatchException("Every item needs a product id");
+            }
+            if (item.getQuantity() == null || item.getQuantity() < 1) {
+                throw new InvalidOrderBatchException("Quantity of product " + item.getProductId() + " must be at least 1");
+            }
+        }
+        return dto.getOrderItems().stream().map(orderItemMapper::toEntity).toList();
+    }
+
+    private static OrderBatchResultDto rejected(int index, String error) {
+        return OrderBatchResultDto.builder()
+                .index(index)
+                .created(false)
+                .error(error)
+                .build();
+    }
+
+    // Lines are grouped by the partition their product id hashes to, so each event can be keyed by any of its
+    // product ids and every update for a given product still lands on one partition in order.
     private void publishStockUpdate(Order order) {
+        Map<Integer, Map<Long, Integer>> linesByPartition = new TreeMap<>();
         for (OrderItem item : order.getItems()) {
-            StockUpdateEvent event = new StockUpdateEvent(item.getProductId(), item.getQuantity());
-            kafkaTemplate.send("stock-update", event);
+            linesByPartition.computeIfAbsent(partitionFor(item.getProductId()), partition -> new LinkedHashMap<>())
+                    .merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        for (Map<Long, Integer> lines : linesByPartition.values()) {
+            List<StockLine> stockLines = lines.entrySet().stream()
+                    .map(line -> new StockLine(line.getKey(), line.getValue()))
+                    .toList();
+            StockReservationEvent event = new StockReservationEvent(order.getId(), order.getOrderNumber(), stockLines);
+            outboxService.enqueue("stock-reservation", productKey(stockLines.get(0).getProductId()), event);
         }
     }
+
+    private int partitionFor(Long productId) {
+        byte[] key = productKey(productId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % stockEventProperties.getPartitions();
+    }
+
+    private static String productKey(Long productId) {
+        return String.valueOf(productId);
+    }
 }
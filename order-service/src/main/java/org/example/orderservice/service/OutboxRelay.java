@@ -0,0 +1,157 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.config.OutboxProperties;
+import org.example.orderservice.dto.OutboxKeyRow;
+import org.example.orderservice.model.OutboxEvent;
+import org.example.orderservice.repository.OutboxEventRepository;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Several order-service instances relay the same table. A run claims a batch in a short transaction, sends it with
+// no transaction open, then deletes what Kafka acknowledged and releases the rest. Events that share a key go out in
+// id order, each only after the one before it was acknowledged, so a failed send holds back the rest of its key.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${orders.outbox.poll-interval-ms:200}")
+    public void relay() {
+        UUID claim = UUID.randomUUID();
+        List<OutboxEvent> batch = transactionTemplate.execute(status -> claim(claim));
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        Set<Long> acknowledged = publish(batch);
+        List<Long> unacknowledged = batch.stream()
+                .map(OutboxEvent::getId)
+                .filter(id -> !acknowledged.contains(id))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            if (!unacknowledged.isEmpty()) {
+                outboxEventRepository.release(unacknowledged, claim);
+            }
+        });
+        log.debug("Relayed {} of {} outbox events", acknowledged.size(), batch.size());
+    }
+
+    // A key is claimed only up to its first earlier event this run could not lock: that event belongs to another
+    // relay, or is being claimed by one, and must be sent before anything after it.
+    private List<OutboxEvent> claim(UUID claim) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> candidates = outboxEventRepository.findClaimable(now, properties.getBatchSize());
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<Long> locked = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (OutboxEvent candidate : candidates) {
+            locked.add(candidate.getId());
+            if (candidate.getMessageKey() != null) {
+                keys.add(candidate.getMessageKey());
+            }
+        }
+        Set<Long> taken = new HashSet<>();
+        if (!keys.isEmpty()) {
+            Set<String> blocked = new HashSet<>();
+            Long upTo = candidates.get(candidates.size() - 1).getId();
+            for (OutboxKeyRow row : outboxEventRepository.findKeyRows(keys, upTo)) {
+                if (blocked.contains(row.getMessageKey())) {
+                    continue;
+                }
+                if (locked.contains(row.getId())) {
+                    taken.add(row.getId());
+                } else {
+                    blocked.add(row.getMessageKey());
+                }
+            }
+        }
+
+        LocalDateTime leaseEnd = now.plusNanos(TimeUnit.MILLISECONDS.toNanos(properties.getLeaseMs()));
+        List<OutboxEvent> claimed = new ArrayList<>(candidates.size());
+        for (OutboxEvent candidate : candidates) {
+            if (candidate.getMessageKey() == null || taken.contains(candidate.getId())) {
+                candidate.setClaimedBy(claim);
+                candidate.setClaimedUntil(leaseEnd);
+                claimed.add(candidate);
+            }
+        }
+        return claimed;
+    }
+
+    // Sends in rounds, one event per key per round, so every key keeps its order and a failure stops only its key.
+    // Each round still hands all of its events to the producer before waiting, so they share produce requests.
+    private Set<Long> publish(List<OutboxEvent> batch) {
+        Map<Object, Deque<OutboxEvent>> queues = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            Object key = outboxEvent.getMessageKey() != null ? outboxEvent.getMessageKey() : outboxEvent.getId();
+            queues.computeIfAbsent(key, ignored -> new ArrayDeque<>()).add(outboxEvent);
+        }
+
+        Set<Long> acknowledged = new HashSet<>(batch.size());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getSendTimeoutMs());
+        while (!queues.isEmpty()) {
+            Map<Object, CompletableFuture<SendResult<String, Object>>> sends = new LinkedHashMap<>();
+            queues.forEach((key, queue) -> sends.put(key, send(queue.peek())));
+
+            for (Map.Entry<Object, CompletableFuture<SendResult<String, Object>>> entry : sends.entrySet()) {
+                Deque<OutboxEvent> queue = queues.get(entry.getKey());
+                OutboxEvent outboxEvent = Objects.requireNonNull(queue.poll());
+                try {
+                    entry.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    acknowledged.add(outboxEvent.getId());
+                    if (queue.isEmpty()) {
+                        queues.remove(entry.getKey());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return acknowledged;
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("Outbox event {} not acknowledged, it and {} later events for its key will be retried: {}",
+                            outboxEvent.getId(), queue.size(), e.getMessage());
+                    queues.remove(entry.getKey());
+                }
+            }
+        }
+        return acknowledged;
+    }
+
+    private CompletableFuture<SendResult<String, Object>> send(OutboxEvent outboxEvent) {
+        try {
+            Object event = objectMapper.readValue(outboxEvent.getPayload(), Class.forName(outboxEvent.getEventType()));
+            return kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getMessageKey(), event);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
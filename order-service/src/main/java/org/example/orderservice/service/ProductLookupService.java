@@ -0,0 +1,124 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.config.Product;
+import org.example.orderservice.config.ProductLookupProperties;
+import org.example.orderservice.config.ProductServiceClient;
+import org.example.orderservice.exceptions.OutOfStockException;
+import org.example.orderservice.exceptions.ProductLookupException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductLookupService {
+    private final ProductServiceClient client;
+    private final ProductLookupProperties properties;
+    private final ExecutorService productLookupExecutor;
+    private final ProductReplica productReplica;
+    private final HedgedProductReader hedgedProductReader;
+
+    public Map<Long, Product> fetchProducts(Map<Long, Integer> requested) throws OutOfStockException {
+        Map<Long, Product> products = new HashMap<>();
+        Map<Long, Integer> missing = new HashMap<>();
+        requested.forEach((productId, quantity) -> {
+            Product product = productReplica.find(productId);
+            if (product != null) {
+                products.put(productId, product);
+            } else {
+                missing.put(productId, quantity);
+            }
+        });
+        if (!missing.isEmpty()) {
+            Map<Long, Product> fetched = fetchRemote(missing);
+            fetched.values().forEach(productReplica::refresh);
+            products.putAll(fetched);
+        }
+        return products;
+    }
+
+    // Lookup without any stock check, for callers that validate quantities against the result themselves.
+    public Map<Long, Product> fetchProducts(Collection<Long> productIds) {
+        Map<Long, Integer> lookupOnly = new HashMap<>();
+        productIds.forEach(productId -> lookupOnly.put(productId, 0));
+        try {
+            return fetchProducts(lookupOnly);
+        } catch (OutOfStockException e) {
+            throw new IllegalStateException("Stock check on a lookup-only request", e);
+        }
+    }
+
+    private Map<Long, Product> fetchRemote(Map<Long, Integer> requested) throws OutOfStockException {
+        if (properties.getMode() == ProductLookupProperties.Mode.CONCURRENT) {
+            return fetchConcurrently(requested);
+        }
+        return client.getProducts(new ArrayList<>(requested.keySet())).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
+    // Keeps at most maxConcurrency lookups in flight for one order and gives up on the rest
+    // as soon as a product comes back short or the order deadline passes.
+    private Map<Long, Product> fetchConcurrently(Map<Long, Integer> requested) throws OutOfStockException {
+        CompletionService<Product> completionService = new ExecutorCompletionService<>(productLookupExecutor);
+        List<Future<Product>> inFlight = new ArrayList<>();
+        Iterator<Long> pending = requested.keySet().iterator();
+        Map<Long, Product> products = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getDeadlineMs());
+        int running = 0;
+
+        try {
+            while (pending.hasNext() && running < Math.max(1, properties.getMaxConcurrency())) {
+                inFlight.add(submit(completionService, pending.next()));
+                running++;
+            }
+            while (running > 0) {
+                Future<Product> done = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new ProductLookupException("Product lookup did not finish within "
+                            + properties.getDeadlineMs() + " ms");
+                }
+                running--;
+                Product product = done.get();
+                if (requested.get(product.getId()) > product.getStockQuantity()) {
+                    throw new OutOfStockException("Not enough product in stock");
+                }
+                products.put(product.getId(), product);
+                if (pending.hasNext()) {
+                    inFlight.add(submit(completionService, pending.next()));
+                    running++;
+                }
+            }
+            return products;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProductLookupException("Interrupted while looking up products", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new ProductLookupException("Product lookup failed", e.getCause());
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<Product> submit(CompletionService<Product> completionService, Long productId) {
+        return completionService.submit(() -> hedgedProductReader.getProduct(productId));
+    }
+}
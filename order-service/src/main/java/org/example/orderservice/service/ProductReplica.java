@@ -0,0 +1,88 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonevents.ProductChangeEvent;
+import org.example.orderservice.config.Product;
+import org.example.orderservice.config.ProductReplicaProperties;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductReplica {
+    private final ProductReplicaProperties properties;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > properties.getMaxSize();
+        }
+    };
+
+    private record Entry(BigDecimal price, Integer stockQuantity, Long version, long receivedAt) {
+    }
+
+    // Every instance keeps its own copy, so each one reads the whole compacted topic under its own group.
+    @KafkaListener(
+            topics = "product-change",
+            groupId = "order-service-replica-${random.uuid}",
+            autoStartup = "${orders.product-replica.enabled:true}",
+            properties = "auto.offset.reset=earliest"
+    )
+    public void handleProductChangeEvent(ProductChangeEvent event) {
+        synchronized (entries) {
+            if (event.isDeleted()) {
+                entries.remove(event.getProductId());
+                return;
+            }
+            Entry current = entries.get(event.getProductId());
+            if (current != null && current.version() != null && event.getVersion() != null
+                    && current.version() > event.getVersion()) {
+                log.debug("Ignoring stale change for product {}", event.getProductId());
+                return;
+            }
+            entries.put(event.getProductId(), new Entry(
+                    event.getPrice(), event.getStockQuantity(), event.getVersion(), System.currentTimeMillis()));
+        }
+    }
+
+    public void refresh(Product product) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        synchronized (entries) {
+            Entry current = entries.get(product.getId());
+            if (current != null && current.version() != null && product.getVersion() != null
+                    && current.version() > product.getVersion()) {
+                return;
+            }
+            entries.put(product.getId(), new Entry(
+                    product.getPrice(), product.getStockQuantity(), product.getVersion(), System.currentTimeMillis()));
+        }
+    }
+
+    public Product find(Long productId) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(productId);
+        }
+        if (entry == null || System.currentTimeMillis() - entry.receivedAt() > properties.getMaxAgeMs()) {
+            return null;
+        }
+        Product product = new Product();
+        product.setId(productId);
+        product.setPrice(entry.price());
+        product.setStockQuantity(entry.stockQuantity());
+        product.setVersion(entry.version());
+        return product;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.orderservice.service;
+
+import java.util.UUID;
+
+public class RandomOrderNumberGenerator implements OrderNumberGenerator {
+
+    @Override
+    public UUID next() {
+        return UUID.randomUUID();
+    }
+}
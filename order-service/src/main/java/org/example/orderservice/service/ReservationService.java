@@ -0,0 +1,96 @@
+package org.example.orderservice.service;
+
+import feign.FeignException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonevents.StockLine;
+import org.example.orderservice.config.ProductServiceClient;
+import org.example.orderservice.config.ReservationBatchRequest;
+import org.example.orderservice.config.ReservationProperties;
+import org.example.orderservice.config.ReservationRequest;
+import org.example.orderservice.config.ReservationResult;
+import org.example.orderservice.exceptions.OutOfStockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReservationService {
+    private static final String REJECTED = "REJECTED";
+
+    private final ProductServiceClient client;
+    private final ReservationProperties properties;
+
+    // The hold is confirmed by the order's stock-reservation event. If the order never commits, it is released here
+    // straight away and otherwise left to expire in product-service.
+    public void reserve(UUID orderNumber, Map<Long, Integer> requested) throws OutOfStockException {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        List<StockLine> lines = requested.entrySet().stream()
+                .map(line -> new StockLine(line.getKey(), line.getValue()))
+                .toList();
+        try {
+            client.reserve(new ReservationRequest(orderNumber, lines));
+        } catch (FeignException.Conflict e) {
+            throw new OutOfStockException("Not enough product in stock");
+        }
+
+        releaseOnRollback(List.of(orderNumber));
+    }
+
+    // One call for a whole batch of orders; each is reserved all-or-nothing on its own. Returns the order numbers
+    // product-service could not reserve, which the caller must not create.
+    public Set<UUID> reserveAll(Map<UUID, Map<Long, Integer>> requested) {
+        if (!properties.isEnabled() || requested.isEmpty()) {
+            return Set.of();
+        }
+        List<ReservationRequest> requests = requested.entrySet().stream()
+                .map(order -> new ReservationRequest(order.getKey(), order.getValue().entrySet().stream()
+                        .map(line -> new StockLine(line.getKey(), line.getValue()))
+                        .toList()))
+                .toList();
+        Set<UUID> rejected = new HashSet<>();
+        List<UUID> held = new ArrayList<>();
+        for (ReservationResult result : client.reserveAll(new ReservationBatchRequest(requests))) {
+            if (REJECTED.equals(result.getStatus())) {
+                rejected.add(result.getOrderNumber());
+            } else {
+                held.add(result.getOrderNumber());
+            }
+        }
+
+        releaseOnRollback(held);
+        return rejected;
+    }
+
+    private void releaseOnRollback(List<UUID> orderNumbers) {
+        if (!orderNumbers.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        orderNumbers.forEach(ReservationService.this::release);
+                    }
+                }
+            });
+        }
+    }
+
+    private void release(UUID orderNumber) {
+        try {
+            client.releaseReservation(orderNumber);
+        } catch (FeignException e) {
+            log.warn("Could not release reservation for order {}, it will expire: {}", orderNumber, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.orderservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonevents.StockReleaseEvent;
+import org.example.commonevents.StockResultEvent;
+import org.example.orderservice.model.Status;
+import org.example.orderservice.repository.OrderRepository;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockResultListener {
+    private final OrderRepository orderRepository;
+    private final OutboxService outboxService;
+
+    // An order is CREATED once every item has been confirmed (one result per stock-reservation event of the order) and
+    // CANCELLED on the first rejection, which also releases whatever the order's other events already took.
+    @Transactional
+    @KafkaListener(topics = "stock-result", groupId = "order-service", containerFactory = "batchListenerFactory")
+    public void handleStockResultEvents(List<StockResultEvent> events) {
+        Set<Long> confirmed = new LinkedHashSet<>();
+        Map<Long, UUID> rejected = new HashMap<>();
+        for (StockResultEvent event : events) {
+            if (event.isConfirmed()) {
+                orderRepository.confirmItems(event.getOrderId(), event.getProductIds());
+                confirmed.add(event.getOrderId());
+            } else {
+                rejected.put(event.getOrderId(), event.getOrderNumber());
+            }
+        }
+        confirmed.removeAll(rejected.keySet());
+
+        int created = confirmed.isEmpty() ? 0
+                : orderRepository.updateStatusWhenStockConfirmed(confirmed, Status.PENDING, Status.CREATED);
+        int cancelled = 0;
+        if (!rejected.isEmpty()) {
+            List<Long> pending = orderRepository.findIdsByIdInAndStatus(rejected.keySet(), Status.PENDING);
+            if (!pending.isEmpty()) {
+                cancelled = orderRepository.updateStatus(pending, Status.PENDING, Status.CANCELLED);
+                pending.forEach(orderId -> outboxService.enqueue("stock-release", rejected.get(orderId).toString(),
+                        new StockReleaseEvent(orderId, rejected.get(orderId))));
+            }
+        }
+        log.info("Stock results: {} events, {} orders created, {} cancelled", events.size(), created, cancelled);
+    }
+}
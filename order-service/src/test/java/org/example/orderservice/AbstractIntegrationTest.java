@@ -0,0 +1,26 @@
+package org.example.orderservice;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+// The whole service without a broker, registry or listener containers. Every subclass gets the same context, on a
+// database of its own: the contextLoads context keeps relaying the default one while these tests run. The outbox
+// relay only runs when a test calls it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orders_test_db",
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.kafka.listener.auto-startup=false",
+        "orders.outbox.poll-interval-ms=3600000"
+})
+public abstract class AbstractIntegrationTest {
+
+    @MockitoBean
+    protected KafkaTemplate<String, Object> kafkaTemplate;
+
+    // no broker in tests, so the topic admin would only retry connections during startup
+    @MockitoBean
+    protected KafkaAdmin kafkaAdmin;
+}
@@ -0,0 +1,102 @@
+package org.example.orderservice.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.example.orderservice.model.Status;
+import org.example.orderservice.repository.OrderRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Inserting 50-line orders with one statement per row, which is all IDENTITY ids allowed, against the JDBC batches
+// of the batching profile that pooled sequence ids made possible. Each order is its own transaction, as in
+// createOrder. Run with: mvn -Pbenchmark test -Dtest=OrderInsertBenchmark
+@Slf4j
+@Tag("benchmark")
+class OrderInsertBenchmark extends AbstractIntegrationTest {
+
+    private static final int LINES = 50;
+    private static final int ORDERS = 200;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void fiftyLineOrders() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            Result oneByOne = measure(1, statistics);
+            Result batched = measure(50, statistics);
+            log.info("{} orders of {} lines, one statement per row: {} us per order, {} statements per order",
+                    ORDERS, LINES, oneByOne.microsPerOrder(), oneByOne.statementsPerOrder());
+            log.info("{} orders of {} lines, JDBC batches of 50:     {} us per order, {} statements per order",
+                    ORDERS, LINES, batched.microsPerOrder(), batched.statementsPerOrder());
+            assertThat(batched.statementsPerOrder()).isLessThan(oneByOne.statementsPerOrder() / 10);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private Result measure(int batchSize, Statistics statistics) {
+        long totalNanos = 0;
+        long statements = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            for (int i = 0; i < ORDERS; i++) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                    orderRepository.save(order());
+                });
+            }
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                totalNanos += elapsed;
+                statements += statistics.getPrepareStatementCount();
+            }
+            orderRepository.deleteAll();
+        }
+        long orders = (long) ORDERS * ROUNDS;
+        return new Result(totalNanos / orders / 1_000, (double) statements / orders);
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setStatus(Status.CREATED);
+        for (int line = 0; line < LINES; line++) {
+            OrderItem item = new OrderItem();
+            item.setProductId((long) line + 1);
+            item.setQuantity(1);
+            item.setPrice(BigDecimal.TEN);
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    private record Result(long microsPerOrder, double statementsPerOrder) {
+    }
+}
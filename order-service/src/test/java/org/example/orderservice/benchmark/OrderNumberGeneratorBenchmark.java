@@ -0,0 +1,77 @@
+package org.example.orderservice.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.orderservice.service.OrderNumberGenerator;
+import org.example.orderservice.service.RandomOrderNumberGenerator;
+import org.example.orderservice.service.UuidV7OrderNumberGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Generation cost of each order number format with 1 to 4x the available cores calling at once. The random v4
+// generator shares one SecureRandom; the v7 one shares a counter and keeps a SecureRandom per thread. Run with:
+// mvn -Pbenchmark test -Dtest=OrderNumberGeneratorBenchmark
+@Slf4j
+@Tag("benchmark")
+class OrderNumberGeneratorBenchmark {
+
+    private static final int CALLS_PER_THREAD = 200_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    // keeps the generated values observable so the loop is not optimised away
+    private static volatile long sink;
+
+    @Test
+    void generationUnderContention() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads : new int[]{1, cores, cores * 4}) {
+            double random = measure(new RandomOrderNumberGenerator(), threads);
+            double uuidV7 = measure(new UuidV7OrderNumberGenerator(), threads);
+            log.info("{} threads: random v4 {} ns per call, UUID v7 {} ns per call",
+                    threads, String.format("%.1f", random), String.format("%.1f", uuidV7));
+        }
+    }
+
+    // Wall time of all threads generating CALLS_PER_THREAD values each, per call across all threads.
+    private static double measure(OrderNumberGenerator generator, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            long totalNanos = 0;
+            for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> results = new ArrayList<>(threads);
+                for (int t = 0; t < threads; t++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        long bits = 0;
+                        for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                            UUID uuid = generator.next();
+                            bits ^= uuid.getLeastSignificantBits();
+                        }
+                        return bits;
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Future<Long> result : results) {
+                    sink ^= result.get();
+                }
+                long elapsed = System.nanoTime() - begin;
+                if (round >= WARMUP_ROUNDS) {
+                    totalNanos += elapsed;
+                }
+            }
+            return (double) totalNanos / ROUNDS / ((long) threads * CALLS_PER_THREAD);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.orderservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.example.commonevents.StockLine;
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.exceptions.ProductLookupException;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Calls the Feign client as configured in application.yml, circuit breaker, bulkhead and fallback included, against
+// an in-process product-service stub. Only the read timeout is shortened. The product id picks the stub's answer.
+class ProductServiceClientResilienceTest extends AbstractIntegrationTest {
+
+    private static final long SLOW_ID = 2;
+    private static final long FAILING_ID = 3;
+    private static final long HELD_ID = 4;
+    private static final int MAX_CONCURRENT_CALLS = 64;
+
+    private static final HttpServer server = startServer();
+    private static final AtomicInteger calls = new AtomicInteger();
+    private static volatile CountDownLatch held = new CountDownLatch(0);
+    private static volatile CountDownLatch release = new CountDownLatch(0);
+
+    @Autowired
+    private ProductServiceClient client;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private CircuitBreaker circuitBreaker;
+
+    @DynamicPropertySource
+    static void productService(DynamicPropertyRegistry registry) {
+        registry.add("orders.product-client.url", () -> "http://127.0.0.1:" + server.getAddress().getPort());
+        registry.add("spring.cloud.openfeign.client.config.product-service.read-timeout", () -> 2_000);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = circuitBreakerRegistry.circuitBreaker("product-service");
+        circuitBreaker.reset();
+        calls.set(0);
+    }
+
+    @Test
+    void readTimeoutBecomesProductLookupException() {
+        assertThat(client.getProduct(1L).getId()).isEqualTo(1L);
+
+        assertThatThrownBy(() -> client.getProduct(SLOW_ID))
+                .isInstanceOf(ProductLookupException.class)
+                .hasRootCauseInstanceOf(SocketTimeoutException.class);
+    }
+
+    @Test
+    void callsBeyondTheBulkheadAreRejectedWithoutWaiting() throws Exception {
+        held = new CountDownLatch(MAX_CONCURRENT_CALLS);
+        release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(MAX_CONCURRENT_CALLS);
+        try {
+            List<Future<Product>> inFlight = new ArrayList<>();
+            for (int i = 0; i < MAX_CONCURRENT_CALLS; i++) {
+                inFlight.add(callers.submit(() -> client.getProduct(HELD_ID)));
+            }
+            assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> client.getProduct(1L))
+                    .isInstanceOf(ProductLookupException.class)
+                    .hasCauseInstanceOf(BulkheadFullException.class);
+            // a call that queued for a permit would wait for the held calls, which only return once released
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(1_000);
+            assertThat(calls.get()).isEqualTo(MAX_CONCURRENT_CALLS);
+
+            release.countDown();
+            for (Future<Product> call : inFlight) {
+                assertThat(call.get(5, TimeUnit.SECONDS).getId()).isEqualTo(HELD_ID);
+            }
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void serverErrorsOpenTheCircuit() {
+        // minimum-number-of-calls is 20 and every one of them fails
+        for (int i = 0; i < 20; i++) {
+            assertThatThrownBy(() -> client.getProduct(FAILING_ID))
+                    .isInstanceOf(ProductLookupException.class)
+                    .hasCauseInstanceOf(FeignException.FeignServerException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        assertThatThrownBy(() -> client.getProduct(1L))
+                .isInstanceOf(ProductLookupException.class)
+                .hasCauseInstanceOf(CallNotPermittedException.class);
+        assertThat(calls.get()).isEqualTo(20);
+    }
+
+    @Test
+    void conflictsPassThroughAndKeepTheCircuitClosed() {
+        ReservationRequest request = new ReservationRequest(UUID.randomUUID(), List.of(new StockLine(1L, 1)));
+        for (int i = 0; i < 30; i++) {
+            assertThatThrownBy(() -> client.reserve(request)).isInstanceOf(FeignException.Conflict.class);
+        }
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isZero();
+        assertThat(client.getProduct(1L).getId()).isEqualTo(1L);
+    }
+
+    // the backlog lets all of the bulkhead's concurrent connections queue while the dispatcher accepts them
+    private static HttpServer startServer() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/products/reservations", exchange -> {
+                calls.incrementAndGet();
+                respond(exchange, 409, "{\"message\":\"Not enough stock\"}");
+            });
+            server.createContext("/products/", exchange -> {
+                calls.incrementAndGet();
+                String path = exchange.getRequestURI().getPath();
+                long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+                if (id == SLOW_ID) {
+                    sleep(3_000);
+                } else if (id == FAILING_ID) {
+                    respond(exchange, 503, "{}");
+                    return;
+                } else if (id == HELD_ID) {
+                    held.countDown();
+                    await(release);
+                }
+                respond(exchange, 200, "{\"id\":" + id + ",\"price\":1,\"stockQuantity\":5}");
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
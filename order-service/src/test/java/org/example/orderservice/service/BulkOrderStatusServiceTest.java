@@ -0,0 +1,112 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.config.BulkStatusProperties;
+import org.example.orderservice.dto.BulkStatusResultDto;
+import org.example.orderservice.dto.BulkStatusUpdateRequestDto;
+import org.example.orderservice.dto.BulkStatusUpdateResponseDto;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.Status;
+import org.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkOrderStatusServiceTest extends AbstractIntegrationTest {
+
+    private static final int MAX_ORDERS = 2;
+
+    @Autowired
+    private BulkOrderStatusService bulkOrderStatusService;
+
+    @Autowired
+    private BulkStatusProperties properties;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private int configuredMaxOrders;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        configuredMaxOrders = properties.getMaxOrders();
+        properties.setMaxOrders(MAX_ORDERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        properties.setMaxOrders(configuredMaxOrders);
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void filterMatchingMoreThanMaxOrdersIsTruncatedAndCanBeContinued() {
+        List<Long> ids = seed(5);
+
+        List<Long> moved = new ArrayList<>();
+        List<Boolean> truncated = new ArrayList<>();
+        Long afterId = null;
+        do {
+            BulkStatusUpdateResponseDto response = bulkOrderStatusService.updateStatuses(
+                    new BulkStatusUpdateRequestDto(null, Status.CREATED, null, null, afterId, Status.PAID));
+            assertThat(response.getResults()).hasSizeLessThanOrEqualTo(MAX_ORDERS);
+            response.getResults().stream().map(BulkStatusResultDto::getId).forEach(moved::add);
+            truncated.add(response.isTruncated());
+            afterId = response.getNextAfterId();
+        } while (afterId != null);
+
+        assertThat(truncated).containsExactly(true, true, false);
+        assertThat(moved).containsExactlyElementsOf(ids);
+        assertThat(orderRepository.findAll()).allMatch(order -> order.getStatus() == Status.PAID);
+    }
+
+    @Test
+    void filterMatchingExactlyMaxOrdersIsNotTruncated() {
+        seed(MAX_ORDERS);
+
+        BulkStatusUpdateResponseDto response = bulkOrderStatusService.updateStatuses(
+                new BulkStatusUpdateRequestDto(null, Status.CREATED, null, null, null, Status.PAID));
+
+        assertThat(response.getUpdated()).isEqualTo(MAX_ORDERS);
+        assertThat(response.isTruncated()).isFalse();
+        assertThat(response.getNextAfterId()).isNull();
+    }
+
+    // only the stock result listener confirms a pending order, once its reservation is settled
+    @Test
+    void pendingOrderCanBeCancelledButNotConfirmed() {
+        List<Long> ids = seed(2, Status.PENDING);
+
+        BulkStatusUpdateResponseDto confirmed = bulkOrderStatusService.updateStatuses(
+                new BulkStatusUpdateRequestDto(List.of(ids.get(0)), null, null, null, null, Status.CREATED));
+        BulkStatusUpdateResponseDto cancelled = bulkOrderStatusService.updateStatuses(
+                new BulkStatusUpdateRequestDto(List.of(ids.get(1)), null, null, null, null, Status.CANCELLED));
+
+        assertThat(confirmed.getUpdated()).isZero();
+        assertThat(confirmed.getResults()).extracting(BulkStatusResultDto::getOutcome)
+                .containsExactly(BulkStatusResultDto.Outcome.ILLEGAL_TRANSITION);
+        assertThat(cancelled.getUpdated()).isEqualTo(1);
+        assertThat(orderRepository.findById(ids.get(0))).get().extracting(Order::getStatus).isEqualTo(Status.PENDING);
+    }
+
+    private List<Long> seed(int count) {
+        return seed(count, Status.CREATED);
+    }
+
+    private List<Long> seed(int count, Status status) {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order();
+            order.setStatus(status);
+            orders.add(order);
+        }
+        return orderRepository.saveAll(orders).stream().map(Order::getId).sorted().toList();
+    }
+}
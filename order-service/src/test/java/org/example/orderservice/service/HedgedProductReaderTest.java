@@ -0,0 +1,193 @@
+package org.example.orderservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.orderservice.config.Product;
+import org.example.orderservice.config.ProductClientProperties;
+import org.example.orderservice.config.ProductServiceClient;
+import org.example.orderservice.config.ReservationBatchRequest;
+import org.example.orderservice.config.ReservationRequest;
+import org.example.orderservice.config.ReservationResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the reader against an in-process product-service stub whose first answer for a "slow" product id is delayed.
+class HedgedProductReaderTest {
+
+    private static final long SLOW_MS = 500;
+    private static final long FIRST_SLOW_ID = 1_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Set<Long> answered = ConcurrentHashMap.newKeySet();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private ExecutorService executor;
+    private ProductClientProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newFixedThreadPool(8);
+        server.setExecutor(serverExecutor);
+        server.createContext("/products/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            if (id >= FIRST_SLOW_ID && answered.add(id)) {
+                sleep(SLOW_MS);
+            }
+            byte[] body = objectMapper.writeValueAsBytes(Map.of("id", id, "price", 1, "stockQuantity", 5));
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        executor = Executors.newFixedThreadPool(8);
+        properties = new ProductClientProperties();
+        properties.getHedging().setEnabled(true);
+        properties.getHedging().setMinDelayMs(20);
+        properties.getHedging().setMinSamples(50);
+        properties.getHedging().setRecomputeEvery(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void noHedgeDelayUntilEnoughSamples() {
+        HedgedProductReader reader = reader();
+
+        for (long id = 1; id < 50; id++) {
+            reader.getProduct(id);
+            assertThat(reader.hedgeDelayNanos()).isNegative();
+        }
+        reader.getProduct(50L);
+
+        assertThat(reader.hedgeDelayNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(meterRegistry.counter("product.client.hedges").count()).isZero();
+    }
+
+    @Test
+    void slowFirstAnswerIsOvertakenByTheHedge() {
+        HedgedProductReader reader = reader();
+        for (long id = 1; id <= 300; id++) {
+            reader.getProduct(id);
+        }
+        long delay = reader.hedgeDelayNanos();
+        assertThat(delay).isLessThan(TimeUnit.MILLISECONDS.toNanos(SLOW_MS) / 2);
+        // a fast answer that happened to miss the delay may already have been hedged
+        double hedges = meterRegistry.counter("product.client.hedges").count();
+
+        for (long id = FIRST_SLOW_ID; id < FIRST_SLOW_ID + 10; id++) {
+            long start = System.nanoTime();
+            Product product = reader.getProduct(id);
+            long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            assertThat(product.getId()).isEqualTo(id);
+            assertThat(elapsedMs).isLessThan(SLOW_MS);
+        }
+        // Which of the two requests reaches the stub first, and so gets the slow answer, is up to the scheduler,
+        // so only the hedges are counted; the elapsed times above show the slow answer was never waited for.
+        assertThat(meterRegistry.counter("product.client.hedges").count() - hedges).isEqualTo(10);
+    }
+
+    @Test
+    void disabledHedgingWaitsForTheSlowAnswer() {
+        properties.getHedging().setEnabled(false);
+        HedgedProductReader reader = reader();
+        for (long id = 1; id <= 100; id++) {
+            reader.getProduct(id);
+        }
+
+        long start = System.nanoTime();
+        reader.getProduct(FIRST_SLOW_ID);
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(SLOW_MS);
+        assertThat(meterRegistry.counter("product.client.hedges").count()).isZero();
+    }
+
+    private HedgedProductReader reader() {
+        return new HedgedProductReader(new StubClient(server.getAddress().getPort()), executor, properties, meterRegistry);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Only GET /products/{id} goes over HTTP; the reader uses nothing else.
+    private final class StubClient implements ProductServiceClient {
+        private final HttpClient http = HttpClient.newHttpClient();
+        private final int port;
+
+        StubClient(int port) {
+            this.port = port;
+        }
+
+        @Override
+        public Product getProduct(Long id) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + "/products/" + id)).build();
+            try {
+                String body = http.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8)).body();
+                return objectMapper.readValue(body, Product.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public List<Product> getProducts(List<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void reserve(ReservationRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<ReservationResult> reserveAll(ReservationBatchRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void releaseReservation(UUID orderNumber) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
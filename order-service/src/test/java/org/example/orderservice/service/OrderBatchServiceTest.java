@@ -0,0 +1,96 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.config.Product;
+import org.example.orderservice.dto.OrderBatchResultDto;
+import org.example.orderservice.dto.OrderItemRequestDto;
+import org.example.orderservice.dto.OrderRequestDto;
+import org.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+
+// Product 1 has two in stock; reservations always succeed, so only the batch's own checks turn orders down.
+class OrderBatchServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @MockitoBean
+    private ProductLookupService productLookupService;
+
+    @MockitoBean
+    private ReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setPrice(new BigDecimal("10"));
+        product.setStockQuantity(2);
+        when(productLookupService.fetchProducts(anyCollection())).thenReturn(Map.of(1L, product));
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    void malformedOrdersAreRejectedOnTheirOwn() {
+        List<OrderBatchResultDto> results = orderService.createOrders(Arrays.asList(
+                request(item(1L, 1)),
+                request(item(null, 1)),
+                request(item(1L, null)),
+                request(item(1L, 0)),
+                new OrderRequestDto(null),
+                null,
+                request(item(1L, 1), null)));
+
+        assertThat(results).extracting(OrderBatchResultDto::getIndex).containsExactly(0, 1, 2, 3, 4, 5, 6);
+        assertThat(results).extracting(OrderBatchResultDto::isCreated)
+                .containsExactly(true, false, false, false, false, false, false);
+        assertThat(results).extracting(OrderBatchResultDto::getError).containsExactly(null,
+                "Every item needs a product id",
+                "Quantity of product 1 must be at least 1",
+                "Quantity of product 1 must be at least 1",
+                "Order has no items",
+                "Order has no items",
+                "Every item needs a product id");
+        assertThat(orderRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void negativeQuantityDoesNotFreeStockForLaterOrders() {
+        List<OrderBatchResultDto> results = orderService.createOrders(List.of(
+                request(item(1L, -5)),
+                request(item(1L, 3), item(1L, -2)),
+                request(item(1L, 2)),
+                request(item(1L, 1))));
+
+        assertThat(results).extracting(OrderBatchResultDto::isCreated).containsExactly(false, false, true, false);
+        assertThat(results.get(3).getError()).isEqualTo("Not enough product in stock");
+    }
+
+    private static OrderRequestDto request(OrderItemRequestDto... items) {
+        return new OrderRequestDto(Arrays.asList(items));
+    }
+
+    private static OrderItemRequestDto item(Long productId, Integer quantity) {
+        return new OrderItemRequestDto(productId, quantity);
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.orderservice.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.dto.OrderPageDto;
+import org.example.orderservice.model.Order;
+import org.example.orderservice.model.OrderItem;
+import org.example.orderservice.model.Status;
+import org.example.orderservice.repository.OrderRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Order reads must not grow with the number of orders or items: a page is one id query plus one joined row query.
+class OrderReadQueryCountTest extends AbstractIntegrationTest {
+
+    private static final int ORDERS = 100;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderRepository.deleteAll();
+        List<Order> orders = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = new Order();
+            order.setStatus(Status.CREATED);
+            order.setOrderDate(start.plusSeconds(i));
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                OrderItem item = new OrderItem();
+                item.setProductId((long) j + 1);
+                item.setQuantity(1);
+                item.setPrice(BigDecimal.TEN);
+                order.addItem(item);
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void pageOfOrdersTakesTwoStatements() {
+        OrderPageDto page = orderService.getOrders(null, null, null, null, ORDERS);
+
+        assertThat(page.getItems()).hasSize(ORDERS);
+        assertThat(page.getItems()).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void nextPageTakesTwoStatements() {
+        OrderPageDto first = orderService.getOrders(null, null, null, null, ORDERS / 2);
+        statistics.clear();
+
+        OrderPageDto second = orderService.getOrders(null, null, null, first.getNextCursor(), ORDERS / 2);
+
+        assertThat(second.getItems()).hasSize(ORDERS / 2);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void exportReadsEveryOrderInOneStatement() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        orderService.exportOrders(null, null, null, out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8).lines()).hasSize(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void orderByIdTakesOneStatement() {
+        Long id = orderRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        assertThat(orderService.getOrderById(id).getItems()).hasSize(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void entityGraphLoadsItemsWithTheOrder() {
+        Long id = orderRepository.findAll().get(0).getId();
+        statistics.clear();
+
+        int items = transactionTemplate.execute(status ->
+                orderRepository.findWithItemsById(id).orElseThrow().getItems().size());
+
+        assertThat(items).isEqualTo(ITEMS_PER_ORDER);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
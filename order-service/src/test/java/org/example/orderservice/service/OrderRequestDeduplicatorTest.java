@@ -0,0 +1,89 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.config.IdempotencyProperties;
+import org.example.orderservice.dto.OrderItemRequestDto;
+import org.example.orderservice.dto.OrderRequestDto;
+import org.example.orderservice.dto.OrderResponseDto;
+import org.example.orderservice.exceptions.IdempotencyKeyReuseException;
+import org.example.orderservice.exceptions.OutOfStockException;
+import org.example.orderservice.model.IdempotencyKey;
+import org.example.orderservice.repository.IdempotencyKeyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderRequestDeduplicatorTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final IdempotencyKeyRepository idempotencyKeyRepository = mock(IdempotencyKeyRepository.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final OrderRequestDeduplicator deduplicator = new OrderRequestDeduplicator(orderService,
+            new IdempotencyService(idempotencyKeyRepository, properties), properties);
+
+    @Test
+    void retryWithTheSameBodyGetsTheFirstOrderAndADifferentBodyIsRefused() throws OutOfStockException {
+        OrderResponseDto created = response(1L);
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAtAfter(eq("k"), any())).thenReturn(Optional.empty());
+        when(orderService.createOrder(request(item(1L, 2)), "k")).thenReturn(created);
+
+        assertThat(deduplicator.createOrder("k", request(item(1L, 2)))).isSameAs(created);
+        assertThat(deduplicator.createOrder("k", request(item(1L, 2)))).isSameAs(created);
+        assertThatThrownBy(() -> deduplicator.createOrder("k", request(item(1L, 3))))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+
+        verify(orderService, times(1)).createOrder(any(), eq("k"));
+    }
+
+    // The key was first used on another instance, so only the stored row knows which request claimed it.
+    @Test
+    void keyStoredForADifferentBodyIsRefused() throws OutOfStockException {
+        when(idempotencyKeyRepository.findByIdempotencyKeyAndExpiresAtAfter(eq("k"), any())).thenReturn(Optional.of(
+                new IdempotencyKey(3L, "k", 7L, IdempotencyService.fingerprint(request(item(1L, 2))),
+                        Instant.now().plusSeconds(60))));
+        OrderResponseDto stored = response(7L);
+        when(orderService.getOrderById(7L)).thenReturn(stored);
+
+        assertThatThrownBy(() -> deduplicator.createOrder("k", request(item(1L, 2), item(2L, 1))))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(deduplicator.createOrder("k", request(item(1L, 2)))).isSameAs(stored);
+
+        verify(orderService, never()).createOrder(any(), any());
+    }
+
+    @Test
+    void fingerprintFollowsTheLinesInRequestOrder() {
+        String fingerprint = IdempotencyService.fingerprint(request(item(1L, 2), item(2L, 1)));
+
+        assertThat(IdempotencyService.fingerprint(request(item(1L, 2), item(2L, 1)))).isEqualTo(fingerprint);
+        assertThat(IdempotencyService.fingerprint(request(item(2L, 1), item(1L, 2)))).isNotEqualTo(fingerprint);
+        assertThat(IdempotencyService.fingerprint(request(item(1L, 21)))).isNotEqualTo(
+                IdempotencyService.fingerprint(request(item(12L, 1))));
+        assertThat(IdempotencyService.fingerprint(new OrderRequestDto(null))).hasSize(64);
+    }
+
+    private static OrderRequestDto request(OrderItemRequestDto... items) {
+        return new OrderRequestDto(List.of(items));
+    }
+
+    private static OrderItemRequestDto item(Long productId, int quantity) {
+        return new OrderItemRequestDto(productId, quantity);
+    }
+
+    private static OrderResponseDto response(Long id) {
+        OrderResponseDto response = new OrderResponseDto();
+        response.setId(id);
+        return response;
+    }
+}
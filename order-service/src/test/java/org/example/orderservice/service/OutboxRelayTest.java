@@ -0,0 +1,102 @@
+package org.example.orderservice.service;
+
+import org.example.orderservice.AbstractIntegrationTest;
+import org.example.orderservice.model.OutboxEvent;
+import org.example.orderservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @BeforeEach
+    void setUp() {
+        outboxEventRepository.deleteAll();
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void failedSendHoldsBackTheRestOfItsKey() {
+        OutboxEvent a1 = save("A", "a1");
+        OutboxEvent a2 = save("A", "a2");
+        OutboxEvent a3 = save("A", "a3");
+        OutboxEvent b1 = save("B", "b1");
+        OutboxEvent unkeyed = save(null, "n1");
+        when(kafkaTemplate.send("stock-update", "A", "a2"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        outboxRelay.relay();
+
+        verify(kafkaTemplate).send("stock-update", "A", "a1");
+        verify(kafkaTemplate).send("stock-update", "B", "b1");
+        verify(kafkaTemplate).send(eq("stock-update"), isNull(), eq("n1"));
+        verify(kafkaTemplate, never()).send("stock-update", "A", "a3");
+        assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getId)
+                .containsExactlyInAnyOrder(a2.getId(), a3.getId());
+        assertThat(outboxEventRepository.findAll())
+                .allSatisfy(left -> assertThat(left.getClaimedBy()).isNull());
+        assertThat(a1.getId()).isLessThan(a2.getId());
+        assertThat(b1.getId()).isGreaterThan(a3.getId());
+        assertThat(unkeyed.getId()).isGreaterThan(b1.getId());
+    }
+
+    @Test
+    void eventsClaimedByAnotherRelayAndLaterEventsOfTheirKeyAreSkipped() {
+        OutboxEvent c1 = save("C", "c1");
+        c1.setClaimedBy(UUID.randomUUID());
+        c1.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        outboxEventRepository.save(c1);
+        OutboxEvent c2 = save("C", "c2");
+        save("D", "d1");
+
+        outboxRelay.relay();
+
+        verify(kafkaTemplate).send("stock-update", "D", "d1");
+        verify(kafkaTemplate, never()).send("stock-update", "C", "c1");
+        verify(kafkaTemplate, never()).send("stock-update", "C", "c2");
+        assertThat(outboxEventRepository.findById(c2.getId())).hasValueSatisfying(left ->
+                assertThat(left.getClaimedBy()).isNull());
+    }
+
+    @Test
+    void expiredClaimIsTakenOver() {
+        OutboxEvent e1 = save("E", "e1");
+        e1.setClaimedBy(UUID.randomUUID());
+        e1.setClaimedUntil(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(e1);
+
+        outboxRelay.relay();
+
+        verify(kafkaTemplate).send("stock-update", "E", "e1");
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    private OutboxEvent save(String key, String payload) {
+        OutboxEvent outboxEvent = new OutboxEvent();
+        outboxEvent.setTopic("stock-update");
+        outboxEvent.setMessageKey(key);
+        outboxEvent.setEventType(String.class.getName());
+        outboxEvent.setPayload("\"" + payload + "\"");
+        return outboxEventRepository.save(outboxEvent);
+    }
+}
@@ -0,0 +1,130 @@
+package org.example.orderservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7OrderNumberGeneratorTest {
+
+    // 2025-01-01T00:00:00Z
+    private static final long MILLIS = 1_735_689_600_000L;
+
+    @Test
+    void setsVersionAndVariantBits() {
+        UuidV7OrderNumberGenerator generator = new UuidV7OrderNumberGenerator();
+        for (int i = 0; i < 1_000; i++) {
+            UUID uuid = generator.next();
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+            assertThat(UUID.fromString(uuid.toString())).isEqualTo(uuid);
+        }
+    }
+
+    @Test
+    void carriesTheClockInTheTopFortyEightBits() {
+        UUID uuid = new UuidV7OrderNumberGenerator(() -> MILLIS).next();
+
+        assertThat(timestamp(uuid)).isEqualTo(MILLIS);
+        assertThat(uuid.toString()).startsWith("01941f29-7c00-7000-");
+    }
+
+    @Test
+    void systemClockTimestampIsCurrent() {
+        long before = System.currentTimeMillis();
+        UUID uuid = new UuidV7OrderNumberGenerator().next();
+        long after = System.currentTimeMillis();
+
+        assertThat(timestamp(uuid)).isBetween(before, after);
+    }
+
+    @Test
+    void valuesWithinOneMillisecondCountUp() {
+        UuidV7OrderNumberGenerator generator = new UuidV7OrderNumberGenerator(() -> MILLIS);
+
+        UUID previous = generator.next();
+        assertThat(counter(previous)).isZero();
+        for (int i = 1; i < 4096; i++) {
+            UUID uuid = generator.next();
+            assertThat(timestamp(uuid)).isEqualTo(MILLIS);
+            assertThat(counter(uuid)).isEqualTo(i);
+            assertThat(uuid).isGreaterThan(previous);
+            previous = uuid;
+        }
+    }
+
+    @Test
+    void exhaustedCounterCarriesIntoTheTimestamp() {
+        UuidV7OrderNumberGenerator generator = new UuidV7OrderNumberGenerator(() -> MILLIS);
+        UUID last = null;
+        for (int i = 0; i < 4096; i++) {
+            last = generator.next();
+        }
+
+        UUID carried = generator.next();
+
+        assertThat(counter(last)).isEqualTo(0xFFF);
+        assertThat(timestamp(carried)).isEqualTo(MILLIS + 1);
+        assertThat(counter(carried)).isZero();
+        assertThat(carried).isGreaterThan(last);
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotReorderValues() {
+        long[] now = {MILLIS};
+        UuidV7OrderNumberGenerator generator = new UuidV7OrderNumberGenerator(() -> now[0]);
+        UUID before = generator.next();
+
+        now[0] = MILLIS - 5_000;
+        UUID after = generator.next();
+
+        assertThat(timestamp(after)).isEqualTo(MILLIS);
+        assertThat(after).isGreaterThan(before);
+    }
+
+    @Test
+    void concurrentCallersGetDistinctIncreasingValues() throws Exception {
+        UuidV7OrderNumberGenerator generator = new UuidV7OrderNumberGenerator(() -> MILLIS);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<List<UUID>>> tasks = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                tasks.add(() -> {
+                    List<UUID> values = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        values.add(generator.next());
+                    }
+                    return values;
+                });
+            }
+            Set<UUID> all = new HashSet<>();
+            for (Future<List<UUID>> future : executor.invokeAll(tasks)) {
+                List<UUID> values = future.get();
+                assertThat(values).isSorted();
+                all.addAll(values);
+            }
+            assertThat(all).hasSize(threads * perThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static long counter(UUID uuid) {
+        return uuid.getMostSignificantBits() & 0xFFF;
+    }
+}
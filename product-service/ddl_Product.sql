@@ -1,12 +1,20 @@
+CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE products
 (
-    id             BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id             BIGINT       NOT NULL,
     name           VARCHAR(255),
     description    VARCHAR(255),
-    price          DOUBLE PRECISION,
+    price          NUMERIC(38, 2),
     stock_quantity INT,
     category       VARCHAR(255),
     image_url      VARCHAR(255),
     rating         VARCHAR(255),
+    version        BIGINT       NOT NULL DEFAULT 0,
     CONSTRAINT pk_products PRIMARY KEY (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_stock_quantity_id ON products (stock_quantity, id);
+CREATE INDEX idx_products_category_id ON products (category, id);
@@ -0,0 +1,14 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.cache")
+public class ProductCacheProperties {
+    private boolean enabled = true;
+    private long maxEntries = 10_000;
+    private long ttlMs = 60_000;
+}
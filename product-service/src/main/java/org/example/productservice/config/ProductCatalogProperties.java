@@ -0,0 +1,13 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.catalog")
+public class ProductCatalogProperties {
+    private int streamChunkSize = 500;
+    private int maxPageSize = 100;
+}
@@ -0,0 +1,18 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.facets")
+public class ProductFacetProperties {
+    // Upper bounds (exclusive) of every price band but the last, in ascending order.
+    private List<BigDecimal> priceBands = List.of(
+            BigDecimal.valueOf(10), BigDecimal.valueOf(25), BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100), BigDecimal.valueOf(250), BigDecimal.valueOf(500));
+}
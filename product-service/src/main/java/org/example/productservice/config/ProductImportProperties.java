@@ -0,0 +1,14 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.import")
+public class ProductImportProperties {
+    private int chunkSize = 1_000;
+    private int batchSize = 50;
+    private int maxReportedErrors = 100;
+}
@@ -0,0 +1,13 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.suggest")
+public class ProductSuggestProperties {
+    private int maxSuggestions = 10;
+    private long rebuildDelayMs = 2_000;
+}
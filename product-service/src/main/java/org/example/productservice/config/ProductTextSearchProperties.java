@@ -0,0 +1,18 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.text-search")
+public class ProductTextSearchProperties {
+    // BM25 term frequency saturation and document length normalization
+    private float k1 = 1.2f;
+    private float b = 0.75f;
+    // each occurrence of a term counts this many times towards its frequency in the product
+    private int nameWeight = 3;
+    private int categoryWeight = 2;
+    private int descriptionWeight = 1;
+}
@@ -0,0 +1,17 @@
+package org.example.productservice.config;
+
+import org.example.productservice.service.TimingWheel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.UUID;
+
+@Configuration
+public class ReservationConfig {
+
+    @Bean
+    public TimingWheel<UUID> reservationExpiryWheel(ReservationProperties properties) {
+        return new TimingWheel<>(properties.getTickMs(), properties.getWheelSize(), properties.getLevels(),
+                System.currentTimeMillis());
+    }
+}
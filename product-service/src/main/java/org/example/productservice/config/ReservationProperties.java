@@ -0,0 +1,15 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.reservations")
+public class ReservationProperties {
+    private long ttlMs = 600_000;
+    private long tickMs = 100;
+    private int wheelSize = 64;
+    private int levels = 4;
+}
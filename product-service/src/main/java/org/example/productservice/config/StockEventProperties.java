@@ -0,0 +1,21 @@
+package org.example.productservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "products.stock-events")
+public class StockEventProperties {
+    private int partitions = 6;
+    private Batch batch = new Batch();
+
+    @Data
+    public static class Batch {
+        private boolean enabled = false;
+        private int size = 500;
+        private long maxWaitMs = 100;
+        private int fetchMinBytes = 16_384;
+    }
+}
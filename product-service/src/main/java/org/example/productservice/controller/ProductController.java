@@ -2,14 +2,22 @@ package org.example.productservice.controller;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.productservice.dto.ProductImportResultDTO;
+import org.example.productservice.dto.ProductPageDTO;
 import org.example.productservice.dto.ProductRequestDTO;
 import org.example.productservice.dto.ProductResponseDTO;
+import org.example.productservice.dto.ProductSearchResultDTO;
+import org.example.productservice.service.ProductImportService;
 import org.example.productservice.service.ProductService;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -18,10 +26,22 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
     @GetMapping
-    public ResponseEntity<List<ProductResponseDTO>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<StreamingResponseBody> findAll() {
+        StreamingResponseBody body = out -> productService.writeCatalog(out, false);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        StreamingResponseBody body = out -> productService.writeCatalog(out, true);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -29,6 +49,11 @@ public class ProductController {
         return ResponseEntity.ok(productService.findById(id));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductResponseDTO>> findAllByIds(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(productService.findAllByIds(ids));
+    }
+
     @PostMapping
     public ResponseEntity<ProductResponseDTO> save(@Valid @RequestBody ProductRequestDTO productRequestDTO) {
         ProductResponseDTO createdProduct = productService.save(productRequestDTO);
@@ -41,6 +66,16 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdProducts);
     }
 
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ProductImportResultDTO> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importNdjson(body));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ProductImportResultDTO> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(productImportService.importCsv(body));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ProductResponseDTO> update(@PathVariable Long id,
                                                      @Valid @RequestBody ProductRequestDTO productRequestDTO) {
@@ -60,7 +95,7 @@ public class ProductController {
     }
 
     @GetMapping("/paged")
-    public ResponseEntity<Page<ProductResponseDTO>> findAllPaged(
+    public ResponseEntity<Slice<ProductResponseDTO>> findAllPaged(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "id") String sortBy,
@@ -68,4 +103,31 @@ public class ProductController {
             ){
         return ResponseEntity.ok(productService.findAllPaged(page,size,sortBy,direction));
     }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResultDTO> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "") List<String> category,
+            @RequestParam(defaultValue = "") List<String> rating,
+            @RequestParam(defaultValue = "") List<String> price,
+            @RequestParam(required = false) Boolean inStock,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.search(q, category, rating, price, inStock, after, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggest(@RequestParam String q,
+                                                @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(productService.suggest(q, size));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<ProductPageDTO> scroll(
+            @RequestParam(defaultValue = "id") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        return ResponseEntity.ok(productService.scroll(sortBy, direction, size, cursor));
+    }
 }
@@ -0,0 +1,42 @@
+package org.example.productservice.controller;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.example.productservice.dto.ReservationBatchRequestDTO;
+import org.example.productservice.dto.ReservationRequestDTO;
+import org.example.productservice.dto.ReservationResponseDTO;
+import org.example.productservice.service.StockReservationService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/products/reservations")
+@RequiredArgsConstructor
+public class ReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    @PostMapping
+    public ResponseEntity<ReservationResponseDTO> reserve(@Valid @RequestBody ReservationRequestDTO reservationRequestDTO) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(stockReservationService.reserve(reservationRequestDTO));
+    }
+
+    @PostMapping("/batch")
+    public List<ReservationResponseDTO> reserveAll(@Valid @RequestBody ReservationBatchRequestDTO reservationBatchRequestDTO) {
+        return stockReservationService.reserveAll(reservationBatchRequestDTO.getReservations());
+    }
+
+    @PostMapping("/{orderNumber}/confirm")
+    public ResponseEntity<ReservationResponseDTO> confirm(@PathVariable UUID orderNumber) {
+        return ResponseEntity.ok(stockReservationService.confirm(orderNumber));
+    }
+
+    @PostMapping("/{orderNumber}/release")
+    public ResponseEntity<ReservationResponseDTO> release(@PathVariable UUID orderNumber) {
+        return ResponseEntity.ok(stockReservationService.release(orderNumber));
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.productservice.exceptions.InvalidPageRequestException;
+import org.example.productservice.model.Product;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sort order and position of the last product on a page, as an opaque token clients hand back to get the next page.
+ * Products without a value in the sort column come after all others in either direction, in id order; a cursor
+ * pointing at one of them has a null {@code value} and is encoded without the value part.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductCursor {
+    private final ProductSortField field;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long id;
+
+    public static ProductCursor after(ProductSortField field, Sort.Direction direction, ProductResponseDTO product) {
+        Object key = field.keyOf(product);
+        return new ProductCursor(field, direction, key == null ? null : key.toString(), product.getId());
+    }
+
+    public boolean isPastValues() {
+        return value == null;
+    }
+
+    public KeysetScrollPosition position() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put(field.getProperty(), field.parse(value));
+        keys.put(ProductSortField.ID.getProperty(), id);
+        return ScrollPosition.forward(keys);
+    }
+
+    // A bound on the sort column alone, which lets the database seek into the (column, id) index. The keyset
+    // predicate Spring Data adds on top is an OR that it would otherwise check row by row from the index start.
+    @SuppressWarnings("unchecked")
+    public Specification<Product> bound() {
+        Comparable<Object> key = (Comparable<Object>) field.parse(value);
+        return (root, query, builder) -> direction.isAscending()
+                ? builder.greaterThanOrEqualTo(root.get(field.getProperty()), key)
+                : builder.lessThanOrEqualTo(root.get(field.getProperty()), key);
+    }
+
+    // Products after a cursor with no value: the rest of the null block, which is ordered by id alone.
+    public Specification<Product> remainingWithoutValue() {
+        return (root, query, builder) -> builder.and(
+                builder.isNull(root.get(field.getProperty())),
+                direction.isAscending()
+                        ? builder.greaterThan(root.get(ProductSortField.ID.getProperty()), id)
+                        : builder.lessThan(root.get(ProductSortField.ID.getProperty()), id));
+    }
+
+    public String encode() {
+        String raw = field.name() + "|" + direction.name() + "|" + (value == null ? "" : value + "|") + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // The value sits between the second and the last separator, so it may itself contain '|'. A token with only
+    // two separators has no value at all, which is different from an empty value.
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf('|');
+            int second = raw.indexOf('|', first + 1);
+            int last = raw.lastIndexOf('|');
+            if (first < 0 || second < 0) {
+                throw new InvalidPageRequestException("Invalid cursor " + token);
+            }
+            ProductSortField field = ProductSortField.valueOf(raw.substring(0, first));
+            String value = last == second ? null : raw.substring(second + 1, last);
+            if (value != null) {
+                field.parse(value);
+            } else if (!field.isNullable()) {
+                throw new InvalidPageRequestException("Invalid cursor " + token);
+            }
+            return new ProductCursor(field, Sort.Direction.valueOf(raw.substring(first + 1, second)), value,
+                    Long.valueOf(raw.substring(last + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageRequestException("Invalid cursor " + token);
+        }
+    }
+}
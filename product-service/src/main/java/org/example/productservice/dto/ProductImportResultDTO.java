@@ -0,0 +1,22 @@
+package org.example.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private long received;
+    private long imported;
+    private long failed;
+    private int chunks;
+    // the first products.import.max-reported-errors failures, each with the line of its record
+    private List<RowError> errors;
+
+    public record RowError(long line, String error) {
+    }
+}
@@ -32,7 +32,8 @@ public class ProductMapper {
                 product.getStockQuantity(),
                 product.getCategory(),
                 product.getImageUrl(),
-                product.getRating() != null ? product.getRating().name() : null
+                product.getRating() != null ? product.getRating().name() : null,
+                product.getVersion()
         );
     }
 }
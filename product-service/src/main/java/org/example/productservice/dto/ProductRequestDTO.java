@@ -34,4 +34,6 @@ public class ProductRequestDTO {
     private String imageUrl;
 
     private String rating;
+
+    private Long version;
 }
@@ -18,4 +18,5 @@ public class ProductResponseDTO {
     private String category;
     private String imageUrl;
     private String rating;
+    private Long version;
 }
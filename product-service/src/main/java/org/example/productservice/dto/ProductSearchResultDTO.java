@@ -0,0 +1,19 @@
+package org.example.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+    private long total;
+    private List<ProductResponseDTO> items;
+    private Long nextAfter;
+    // facet -> value -> number of matching products, counted with the other facets' filters applied
+    private Map<String, Map<String, Long>> facets;
+}
@@ -0,0 +1,69 @@
+package org.example.productservice.dto;
+
+import org.example.productservice.exceptions.InvalidPageRequestException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/**
+ * Fields a product listing may be sorted by. Each one is backed by an index on (column, id) in {@code products}.
+ */
+public enum ProductSortField {
+    ID("id", Long::valueOf, ProductResponseDTO::getId),
+    NAME("name", value -> value, ProductResponseDTO::getName),
+    PRICE("price", BigDecimal::new, ProductResponseDTO::getPrice),
+    STOCK_QUANTITY("stockQuantity", Integer::valueOf, ProductResponseDTO::getStockQuantity),
+    CATEGORY("category", value -> value, ProductResponseDTO::getCategory);
+
+    private final String property;
+    private final Function<String, Object> parser;
+    private final Function<ProductResponseDTO, Object> accessor;
+
+    ProductSortField(String property, Function<String, Object> parser, Function<ProductResponseDTO, Object> accessor) {
+        this.property = property;
+        this.parser = parser;
+        this.accessor = accessor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object parse(String value) {
+        return parser.apply(value);
+    }
+
+    public Object keyOf(ProductResponseDTO product) {
+        return accessor.apply(product);
+    }
+
+    public boolean isNullable() {
+        return this != ID;
+    }
+
+    // Rows that have a value in this column; the others are listed separately after them.
+    public <T> Specification<T> present() {
+        return (root, query, builder) -> isNullable() ? builder.isNotNull(root.get(property)) : null;
+    }
+
+    public <T> Specification<T> absent() {
+        return (root, query, builder) -> builder.isNull(root.get(property));
+    }
+
+    // Ties are broken by id so the order is total, which keyset positions rely on.
+    public Sort sort(Sort.Direction direction) {
+        Sort sort = Sort.by(direction, property);
+        return this == ID ? sort : sort.and(Sort.by(direction, ID.property));
+    }
+
+    public static ProductSortField fromProperty(String property) {
+        for (ProductSortField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new InvalidPageRequestException("Products cannot be sorted by " + property);
+    }
+}
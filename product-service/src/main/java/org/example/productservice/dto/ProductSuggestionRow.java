@@ -0,0 +1,14 @@
+package org.example.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.productservice.model.Rating;
+
+@Getter
+@AllArgsConstructor
+public class ProductSuggestionRow {
+    private final Long id;
+    private final String name;
+    private final Rating rating;
+    private final Integer stockQuantity;
+}
@@ -0,0 +1,18 @@
+package org.example.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationBatchRequestDTO {
+
+    @NotEmpty(message = "Batch needs at least one reservation")
+    private List<@Valid ReservationRequestDTO> reservations;
+}
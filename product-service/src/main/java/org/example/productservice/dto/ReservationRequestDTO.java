@@ -0,0 +1,23 @@
+package org.example.productservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequestDTO {
+
+    @NotNull(message = "Order number is required")
+    private UUID orderNumber;
+
+    @NotEmpty(message = "Reservation needs at least one line")
+    private List<@Valid ReservationLineDTO> lines;
+}
@@ -0,0 +1,17 @@
+package org.example.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationResponseDTO {
+    private UUID orderNumber;
+    private String status;
+    private Instant expiresAt;
+}
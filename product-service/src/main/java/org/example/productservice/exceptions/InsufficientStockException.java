@@ -0,0 +1,7 @@
+package org.example.productservice.exceptions;
+
+public class InsufficientStockException extends RuntimeException {
+    public InsufficientStockException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.productservice.exceptions;
+
+public class InvalidImportRequestException extends RuntimeException {
+    public InvalidImportRequestException(String message) {
+        super(message);
+    }
+}
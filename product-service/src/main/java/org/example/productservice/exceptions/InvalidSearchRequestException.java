@@ -0,0 +1,7 @@
+package org.example.productservice.exceptions;
+
+public class InvalidSearchRequestException extends RuntimeException {
+    public InvalidSearchRequestException(String message) {
+        super(message);
+    }
+}
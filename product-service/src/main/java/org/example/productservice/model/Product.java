@@ -10,14 +10,20 @@ import java.math.BigDecimal;
 
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id"),
+        @Index(name = "idx_products_stock_quantity_id", columnList = "stock_quantity, id"),
+        @Index(name = "idx_products_category_id", columnList = "category, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Product {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
     private String name;
     private String description;
@@ -27,4 +33,6 @@ public class Product {
     private String imageUrl;
     @Enumerated(EnumType.STRING)
     private Rating rating;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,26 @@
+package org.example.productservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+// How an order's stock-reservation events ended when its reservation rows cannot tell: REJECTED once one of its
+// events came up short, RELEASED once order-service released it, whether or not anything had been settled yet.
+@Entity
+@Table(name = "reservation_outcomes")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationOutcome {
+    @Id
+    @Column(name = "order_number")
+    private UUID orderNumber;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+}
@@ -0,0 +1,5 @@
+package org.example.productservice.model;
+
+public enum ReservationStatus {
+    HELD, CONFIRMED, RELEASED, EXPIRED, REJECTED
+}
@@ -0,0 +1,39 @@
+package org.example.productservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(
+        name = "stock_reservations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_reservations_order_product",
+                columnNames = {"order_number", "product_id"}),
+        indexes = @Index(name = "idx_stock_reservations_status", columnList = "status")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservations_seq")
+    @SequenceGenerator(name = "stock_reservations_seq", sequenceName = "stock_reservations_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "order_number", nullable = false)
+    private UUID orderNumber;
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    @Column(nullable = false)
+    private Integer quantity;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReservationStatus status;
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+}
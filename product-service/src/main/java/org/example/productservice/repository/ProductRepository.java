@@ -1,13 +1,62 @@
 package org.example.productservice.repository;
 
+import org.example.productservice.dto.ProductSuggestionRow;
 import org.example.productservice.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product,Long>, PagingAndSortingRepository<Product,Long> {
+public interface ProductRepository extends JpaRepository<Product,Long>, PagingAndSortingRepository<Product,Long>,
+        JpaSpecificationExecutor<Product> {
     Optional<Product> findByName(String name);
+
+    @Query("select p.id from Product p where p.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    // Reads one row past the page to tell whether another follows, instead of counting the table.
+    Slice<Product> findAllBy(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Product p order by p.id")
+    Stream<Product> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new org.example.productservice.dto.ProductSuggestionRow(p.id, p.name, p.rating, p.stockQuantity) " +
+            "from Product p order by p.id")
+    Stream<ProductSuggestionRow> streamSuggestionRows();
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 " +
+            "where p.id = :id and p.stockQuantity >= :quantity")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Product p set p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 " +
+            "where p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
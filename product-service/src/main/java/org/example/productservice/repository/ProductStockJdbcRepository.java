@@ -0,0 +1,38 @@
+package org.example.productservice.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+
+@Repository
+@RequiredArgsConstructor
+public class ProductStockJdbcRepository {
+    private static final String DECREASE_STOCK =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, version = version + 1 " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns the ids whose guarded decrement matched no row. Rows are touched in id order to keep lock order stable.
+    public Set<Long> decreaseStock(SortedMap<Long, Integer> deltas) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(DECREASE_STOCK, entries.stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getKey(), delta.getValue()})
+                .toList());
+
+        Set<Long> rejected = new HashSet<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                rejected.add(entries.get(i).getKey());
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.productservice.repository;
+
+import org.example.productservice.model.ReservationOutcome;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface ReservationOutcomeRepository extends JpaRepository<ReservationOutcome, UUID> {
+}
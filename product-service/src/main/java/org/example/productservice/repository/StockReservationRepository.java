@@ -0,0 +1,34 @@
+package org.example.productservice.repository;
+
+import org.example.productservice.model.ReservationStatus;
+import org.example.productservice.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByOrderNumber(UUID orderNumber);
+
+    List<StockReservation> findByOrderNumberIn(Collection<UUID> orderNumbers);
+
+    List<StockReservation> findByStatus(ReservationStatus status);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = :to where r.id = :id and r.status in :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<ReservationStatus> from,
+                   @Param("to") ReservationStatus to);
+
+    @Modifying
+    @Query("update StockReservation r set r.status = :to where r.orderNumber in :orderNumbers and r.status = :from")
+    int transitionOrders(@Param("orderNumbers") Collection<UUID> orderNumbers,
+                         @Param("from") ReservationStatus from,
+                         @Param("to") ReservationStatus to);
+}
@@ -0,0 +1,105 @@
+package org.example.productservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.productservice.config.ProductCacheProperties;
+import org.example.productservice.dto.ProductResponseDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+// Response DTOs by id, plus name -> id so both lookups share one copy of each product. Loaders return null for a
+// missing product, which is never cached. Writers evict after their transaction commits; a load still in flight for
+// the same id finishes first and is then removed, so a read that saw the old row cannot outlive the eviction.
+@Component
+public class ProductCache {
+
+    private final boolean enabled;
+    private final Cache<Long, ProductResponseDTO> byId;
+    private final Cache<String, Long> byName;
+    private final Counter invalidations;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.byId = CaffeineCacheMetrics.monitor(meterRegistry, newCache(properties), "products.by-id");
+        this.byName = CaffeineCacheMetrics.monitor(meterRegistry, newCache(properties), "products.by-name");
+        this.invalidations = Counter.builder("products.cache.invalidations")
+                .description("Products evicted from the lookup cache by a write")
+                .register(meterRegistry);
+    }
+
+    public ProductResponseDTO get(Long id, Function<Long, ProductResponseDTO> loader) {
+        return enabled ? byId.get(id, loader) : loader.apply(id);
+    }
+
+    // The name mapping is checked against the cached product, so a rename or delete that evicted only the id entry
+    // drops the stale mapping and looks the name up again.
+    public ProductResponseDTO getByName(String name, Function<String, Long> idLoader,
+                                        Function<Long, ProductResponseDTO> loader) {
+        if (!enabled) {
+            Long id = idLoader.apply(name);
+            return id == null ? null : loader.apply(id);
+        }
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Long id = byName.get(name, idLoader);
+            if (id == null) {
+                return null;
+            }
+            ProductResponseDTO product = byId.get(id, loader);
+            if (product != null && name.equals(product.getName())) {
+                return product;
+            }
+            byName.asMap().remove(name, id);
+        }
+        return null;
+    }
+
+    public void evict(Long id) {
+        evictAll(List.of(id));
+    }
+
+    public void evictAll(Collection<Long> ids) {
+        if (!enabled || ids.isEmpty()) {
+            return;
+        }
+        List<Long> evicted = List.copyOf(ids);
+        afterCommit(() -> evicted.forEach(this::remove));
+    }
+
+    private void remove(Long id) {
+        ProductResponseDTO removed = byId.asMap().remove(id);
+        if (removed != null) {
+            byName.asMap().remove(removed.getName(), id);
+            invalidations.increment();
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static <K, V> Cache<K, V> newCache(ProductCacheProperties properties) {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(Duration.ofMillis(properties.getTtlMs()))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.productservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.commonevents.ProductChangeEvent;
+import org.example.commonevents.StockResultEvent;
+import org.example.productservice.model.Product;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+@Component
+@RequiredArgsConstructor
+public class ProductEventPublisher {
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    public void publishChange(Product product) {
+        publish(() -> new ProductChangeEvent(
+                product.getId(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getVersion(),
+                false
+        ));
+    }
+
+    public void publishDelete(Long productId) {
+        publish(() -> new ProductChangeEvent(productId, null, null, null, true));
+    }
+
+    public void publishStockResult(StockResultEvent event) {
+        afterCommit(() -> kafkaTemplate.send("stock-result", String.valueOf(event.getOrderNumber()), event));
+    }
+
+    // Events are built after commit so they carry the flushed version and are never sent for a rolled back write.
+    private void publish(Supplier<ProductChangeEvent> event) {
+        afterCommit(() -> send(event.get()));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void send(ProductChangeEvent event) {
+        kafkaTemplate.send("product-change", String.valueOf(event.getProductId()), event);
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.productservice.service;
+
+import org.example.productservice.config.ProductFacetProperties;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// One bitmap per category, rating, price band and for in-stock, with a bit per product id. Ids come from a pooled
+// sequence and are dense, so plain BitSets stay small and filters are word-wise AND / OR. Each facet's counts
+// are taken with the filters on every other facet applied, which is what a storefront shows beside a selection.
+@Component
+public class ProductFacetIndex implements ProductIndex {
+
+    public static final String CATEGORY = "category";
+    public static final String RATING = "rating";
+    public static final String PRICE = "price";
+    public static final String IN_STOCK = "inStock";
+
+    private final List<BigDecimal> bandBounds;
+    private final List<String> bandLabels = new ArrayList<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<String, BitSet> categories = new HashMap<>();
+    private final Map<Rating, BitSet> ratings = new EnumMap<>(Rating.class);
+    private final BitSet[] priceBands;
+    private final BitSet inStock = new BitSet();
+    private final BitSet all = new BitSet();
+    // Ids removed while the startup load runs; ids are never reused, so any later snapshot of one is stale.
+    private Set<Integer> removedDuringLoad = new HashSet<>();
+
+    public ProductFacetIndex(ProductFacetProperties properties) {
+        this.bandBounds = List.copyOf(properties.getPriceBands());
+        String lower = "0";
+        for (BigDecimal bound : bandBounds) {
+            bandLabels.add(lower + "-" + bound.toPlainString());
+            lower = bound.toPlainString();
+        }
+        bandLabels.add(lower + "+");
+        this.priceBands = new BitSet[bandLabels.size()];
+        for (int i = 0; i < priceBands.length; i++) {
+            priceBands[i] = new BitSet();
+        }
+    }
+
+    public record Result(long total, BitSet matching, List<Long> ids, Long nextAfter,
+                         Map<String, Map<String, Long>> facets) {
+    }
+
+    private record Entry(String category, Rating rating, int priceBand, boolean inStock, long version) {
+    }
+
+    // Returns the band with the given label, or -1.
+    public int priceBand(String label) {
+        return bandLabels.indexOf(label);
+    }
+
+    @Override
+    public void index(Product product) {
+        int doc = docOf(product.getId());
+        Entry entry = new Entry(product.getCategory(), product.getRating(), bandOf(product.getPrice()),
+                product.getStockQuantity() != null && product.getStockQuantity() > 0,
+                product.getVersion() != null ? product.getVersion() : 0);
+        lock.writeLock().lock();
+        try {
+            if (removedDuringLoad != null && removedDuringLoad.contains(doc)) {
+                return;
+            }
+            Entry previous = entries.get(doc);
+            // An older snapshot, e.g. the startup load reading a row just before a write to it was applied.
+            if (previous != null && previous.version() > entry.version()) {
+                return;
+            }
+            if (previous != null) {
+                unset(doc, previous);
+            }
+            entries.put(doc, entry);
+            all.set(doc);
+            if (entry.category() != null) {
+                categories.computeIfAbsent(entry.category(), key -> new BitSet()).set(doc);
+            }
+            if (entry.rating() != null) {
+                ratings.computeIfAbsent(entry.rating(), key -> new BitSet()).set(doc);
+            }
+            if (entry.priceBand() >= 0) {
+                priceBands[entry.priceBand()].set(doc);
+            }
+            inStock.set(doc, entry.inStock());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        int doc = docOf(productId);
+        lock.writeLock().lock();
+        try {
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(doc);
+            }
+            Entry previous = entries.remove(doc);
+            if (previous != null) {
+                unset(doc, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Values within a facet are OR-ed and facets are AND-ed; an empty selection leaves a facet unfiltered. When
+    // restrict is not null only products in it are considered, counts included. Matching ids are returned in id
+    // order, limit at a time after the given id.
+    public Result search(Collection<String> categoryValues, Collection<Rating> ratingValues,
+                         Collection<Integer> priceBandValues, Boolean inStockValue, BitSet restrict,
+                         long after, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet[] filters = {
+                    categoryValues.isEmpty() ? null : union(categoryValues.stream().map(categories::get).toList()),
+                    ratingValues.isEmpty() ? null : union(ratingValues.stream().map(ratings::get).toList()),
+                    priceBandValues.isEmpty() ? null : union(priceBandValues.stream().map(band -> priceBands[band]).toList()),
+                    inStockValue == null ? null : inStockValue ? inStock : outOfStock(),
+                    restrict
+            };
+            BitSet matching = intersect(filters, -1);
+
+            BitSet scratch = new BitSet();
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            BitSet base = intersect(filters, 0);
+            Map<String, Long> categoryCounts = new TreeMap<>();
+            categories.forEach((category, bitmap) -> categoryCounts.put(category, count(base, bitmap, scratch)));
+            facets.put(CATEGORY, categoryCounts);
+
+            BitSet ratingBase = intersect(filters, 1);
+            Map<String, Long> ratingCounts = new LinkedHashMap<>();
+            ratings.forEach((rating, bitmap) -> ratingCounts.put(rating.name(), count(ratingBase, bitmap, scratch)));
+            facets.put(RATING, ratingCounts);
+
+            BitSet priceBase = intersect(filters, 2);
+            Map<String, Long> priceCounts = new LinkedHashMap<>();
+            for (int band = 0; band < priceBands.length; band++) {
+                priceCounts.put(bandLabels.get(band), count(priceBase, priceBands[band], scratch));
+            }
+            facets.put(PRICE, priceCounts);
+
+            BitSet stockBase = intersect(filters, 3);
+            long stocked = count(stockBase, inStock, scratch);
+            Map<String, Long> stockCounts = new LinkedHashMap<>();
+            stockCounts.put("true", stocked);
+            stockCounts.put("false", stockBase.cardinality() - stocked);
+            facets.put(IN_STOCK, stockCounts);
+
+            List<Long> ids = new ArrayList<>(limit);
+            int last = -1;
+            int from = after >= Integer.MAX_VALUE ? -1 : matching.nextSetBit((int) Math.max(after + 1, 0));
+            for (int doc = from; doc >= 0 && ids.size() < limit; doc = matching.nextSetBit(doc + 1)) {
+                ids.add((long) doc);
+                last = doc;
+            }
+            Long nextAfter = ids.size() == limit && matching.nextSetBit(last + 1) >= 0 ? (long) last : null;
+            return new Result(matching.cardinality(), matching, ids, nextAfter, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unset(int doc, Entry entry) {
+        all.clear(doc);
+        if (entry.category() != null) {
+            clear(categories, entry.category(), doc);
+        }
+        if (entry.rating() != null) {
+            clear(ratings, entry.rating(), doc);
+        }
+        if (entry.priceBand() >= 0) {
+            priceBands[entry.priceBand()].clear(doc);
+        }
+        inStock.clear(doc);
+    }
+
+    private static <K> void clear(Map<K, BitSet> bitmaps, K key, int doc) {
+        BitSet bitmap = bitmaps.get(key);
+        bitmap.clear(doc);
+        if (bitmap.isEmpty()) {
+            bitmaps.remove(key);
+        }
+    }
+
+    private BitSet outOfStock() {
+        BitSet bitmap = (BitSet) all.clone();
+        bitmap.andNot(inStock);
+        return bitmap;
+    }
+
+    // All products, narrowed by every filter except the one at skip.
+    private BitSet intersect(BitSet[] filters, int skip) {
+        BitSet result = (BitSet) all.clone();
+        for (int i = 0; i < filters.length; i++) {
+            if (i != skip && filters[i] != null) {
+                result.and(filters[i]);
+            }
+        }
+        return result;
+    }
+
+    private static BitSet union(List<BitSet> bitmaps) {
+        BitSet result = new BitSet();
+        for (BitSet bitmap : bitmaps) {
+            if (bitmap != null) {
+                result.or(bitmap);
+            }
+        }
+        return result;
+    }
+
+    private static long count(BitSet base, BitSet bitmap, BitSet scratch) {
+        scratch.clear();
+        scratch.or(base);
+        scratch.and(bitmap);
+        return scratch.cardinality();
+    }
+
+    private int bandOf(BigDecimal price) {
+        if (price == null) {
+            return -1;
+        }
+        int band = 0;
+        while (band < bandBounds.size() && price.compareTo(bandBounds.get(band)) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    private static int docOf(Long productId) {
+        return Math.toIntExact(productId);
+    }
+}
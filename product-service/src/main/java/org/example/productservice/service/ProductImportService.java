@@ -0,0 +1,196 @@
+package org.example.productservice.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.ProductImportProperties;
+import org.example.productservice.dto.ProductImportResultDTO;
+import org.example.productservice.dto.ProductMapper;
+import org.example.productservice.dto.ProductRequestDTO;
+import org.example.productservice.exceptions.InvalidImportRequestException;
+import org.example.productservice.model.Product;
+import org.example.productservice.repository.ProductRepository;
+import org.hibernate.Session;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Imports products one record at a time: every record is validated on its own, and the valid ones are written in
+// chunks of products.import.chunk-size, each chunk in its own transaction and sent as JDBC batches of
+// products.import.batch-size. Only one chunk is held in memory, and a bad record or a failed chunk leaves the
+// others in place.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .readerFor(ProductRequestDTO.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final ProductRepository productRepository;
+    private final ProductEventPublisher productEventPublisher;
+    private final ProductCache productCache;
+    private final ProductIndexer productIndexer;
+    private final ProductImportProperties productImportProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    // One product per line; blank lines are skipped.
+    public ProductImportResultDTO importNdjson(InputStream input) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(ProductRequestDTO.class);
+        Import run = new Import();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            for (String line; (line = lines.readLine()) != null; ) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    run.accept(lineNumber, reader.readValue(line));
+                } catch (JsonProcessingException e) {
+                    run.reject(lineNumber, e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    // A header row names the columns after the ProductRequestDTO fields, in any order; empty cells are null.
+    // A record that does not bind is skipped, but input that stops being CSV ends the import at that line.
+    public ProductImportResultDTO importCsv(InputStream input) throws IOException {
+        MappingIterator<ProductRequestDTO> records;
+        try {
+            records = CSV_READER.readValues(input);
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportRequestException("Unreadable CSV header: " + e.getOriginalMessage());
+        }
+        Import run = new Import();
+        try (records) {
+            while (true) {
+                try {
+                    if (!records.hasNextValue()) {
+                        break;
+                    }
+                } catch (JsonProcessingException e) {
+                    run.reject(lineOf(records), e.getOriginalMessage());
+                    break;
+                }
+                long line = lineOf(records);
+                try {
+                    run.accept(line, records.nextValue());
+                } catch (JsonProcessingException e) {
+                    run.reject(line, e.getOriginalMessage());
+                }
+            }
+        }
+        return run.finish();
+    }
+
+    // Once the next record is found the parser sits at its first line.
+    private static long lineOf(MappingIterator<?> records) {
+        return records.getParser().currentLocation().getLineNr();
+    }
+
+    private final class Import {
+        private final List<Product> pending = new ArrayList<>();
+        private final List<Long> pendingLines = new ArrayList<>();
+        private final List<ProductImportResultDTO.RowError> errors = new ArrayList<>();
+        private long received;
+        private long imported;
+        private long failed;
+        private int chunks;
+
+        void accept(long line, ProductRequestDTO record) {
+            received++;
+            String violations = validator.validate(record).stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                fail(line, violations);
+                return;
+            }
+            try {
+                pending.add(ProductMapper.toEntity(record));
+            } catch (IllegalArgumentException e) {
+                fail(line, "rating: Unknown rating " + record.getRating());
+                return;
+            }
+            pendingLines.add(line);
+            if (pending.size() >= productImportProperties.getChunkSize()) {
+                flush();
+            }
+        }
+
+        void reject(long line, String error) {
+            received++;
+            fail(line, error);
+        }
+
+        ProductImportResultDTO finish() {
+            flush();
+            log.info("Import finished: {} of {} products saved in {} chunks, {} rejected",
+                    imported, received, chunks, failed);
+            return new ProductImportResultDTO(received, imported, failed, chunks, errors);
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Product> chunk = List.copyOf(pending);
+            List<Long> lines = List.copyOf(pendingLines);
+            pending.clear();
+            pendingLines.clear();
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    entityManager.unwrap(Session.class).setJdbcBatchSize(productImportProperties.getBatchSize());
+                    List<Product> saved = productRepository.saveAll(chunk);
+                    saved.forEach(productEventPublisher::publishChange);
+                    productCache.evictAll(saved.stream().map(Product::getId).toList());
+                    productIndexer.indexedAll(saved);
+                });
+                imported += chunk.size();
+                chunks++;
+                log.info("Imported {} products so far, {} rejected", imported, failed);
+            } catch (RuntimeException e) {
+                // drivers append the failed statement after the first line
+                String cause = String.valueOf(NestedExceptionUtils.getMostSpecificCause(e).getMessage()).lines().findFirst().orElse("");
+                log.warn("Import chunk of lines {}-{} rolled back: {}", lines.get(0), lines.get(lines.size() - 1), cause);
+                lines.forEach(line -> fail(line, "Chunk rolled back: " + cause));
+            }
+        }
+
+        private void fail(long line, String error) {
+            failed++;
+            if (errors.size() < productImportProperties.getMaxReportedErrors()) {
+                errors.add(new ProductImportResultDTO.RowError(line, error));
+            }
+        }
+    }
+}
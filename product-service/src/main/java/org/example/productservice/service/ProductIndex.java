@@ -0,0 +1,20 @@
+package org.example.productservice.service;
+
+import org.example.productservice.model.Product;
+
+/**
+ * An in-memory view of the catalog kept current by {@link ProductIndexer}: loaded from every product at startup, then
+ * given each committed write.
+ */
+public interface ProductIndex {
+
+    // Adds the product or replaces what was indexed for its id.
+    void index(Product product);
+
+    void remove(Long productId);
+
+    // The startup load has read every product. Until then an index remembers the ids removed meanwhile, since the
+    // load may still hold a snapshot of one of them read before its delete committed.
+    default void loaded() {
+    }
+}
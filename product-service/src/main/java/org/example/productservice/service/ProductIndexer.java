@@ -0,0 +1,84 @@
+package org.example.productservice.service;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.ProductCatalogProperties;
+import org.example.productservice.model.Product;
+import org.example.productservice.repository.ProductRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Feeds every ProductIndex. Writes reach the indexes once their transaction commits, so a rolled back write is
+// never visible and a search never sees a product before a read of it would.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductIndexer {
+
+    private final List<ProductIndex> indexes;
+    private final ProductRepository productRepository;
+    private final ProductCatalogProperties productCatalogProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndexes() {
+        int chunkSize = productCatalogProperties.getStreamChunkSize();
+        Integer loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> {
+                int count = 0;
+                try (Stream<Product> products = productRepository.streamAll()) {
+                    for (Iterator<Product> it = products.iterator(); it.hasNext(); ) {
+                        Product product = it.next();
+                        indexes.forEach(index -> index.index(product));
+                        if (++count % chunkSize == 0) {
+                            entityManager.clear();
+                        }
+                    }
+                }
+                return count;
+            });
+        } finally {
+            indexes.forEach(ProductIndex::loaded);
+        }
+        log.info("Loaded {} products into {} indexes", loaded, indexes.size());
+    }
+
+    public void indexed(Product product) {
+        indexedAll(List.of(product));
+    }
+
+    public void indexedAll(Collection<Product> products) {
+        if (!products.isEmpty()) {
+            afterCommit(() -> products.forEach(product -> indexes.forEach(index -> index.index(product))));
+        }
+    }
+
+    public void removed(Long productId) {
+        afterCommit(() -> indexes.forEach(index -> index.remove(productId)));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
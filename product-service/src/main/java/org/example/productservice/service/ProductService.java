@@ -1,23 +1,50 @@
 package org.example.productservice.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.config.ProductCatalogProperties;
+import org.example.productservice.config.ProductSuggestProperties;
 import org.example.productservice.dto.*;
+import org.example.productservice.exceptions.InvalidSearchRequestException;
 import org.example.productservice.exceptions.ProductNotFoundException;
 import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.commonevents.StockLine;
+import org.example.commonevents.StockReservationEvent;
 import org.example.commonevents.StockUpdateEvent;
 import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ProductStockJdbcRepository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -25,35 +52,95 @@ import java.util.stream.Collectors;
 public class ProductService {
 
     private final ProductRepository productRepository;
+    private final ProductEventPublisher productEventPublisher;
+    private final ProductStockJdbcRepository productStockJdbcRepository;
+    private final StockReservationService stockReservationService;
+    private final ProductCache productCache;
+    private final ProductIndexer productIndexer;
+    private final ProductFacetIndex productFacetIndex;
+    private final ProductTextIndex productTextIndex;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final ProductCatalogProperties productCatalogProperties;
+    private final ProductSuggestProperties productSuggestProperties;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    // Writes the catalog while it is read, as one JSON array or as one document per line. Each product is mapped and
+    // written as soon as it arrives, and the persistence context is cleared every chunk, so heap use does not grow
+    // with the catalog.
     @Transactional(readOnly = true)
-    public List<ProductResponseDTO> findAll() {
-        return productRepository.findAll()
-                .stream()
-                .map(ProductMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    public void writeCatalog(OutputStream out, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        int chunkSize = productCatalogProperties.getStreamChunkSize();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .setRootValueSeparator(null);
+             Stream<Product> products = productRepository.streamAll()) {
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+            int written = 0;
+            for (Iterator<Product> it = products.iterator(); it.hasNext(); ) {
+                writer.writeValue(generator, ProductMapper.toResponseDTO(it.next()));
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+                if (++written % chunkSize == 0) {
+                    entityManager.clear();
+                    generator.flush();
+                }
+            }
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        }
     }
+
     @Transactional
     public ProductResponseDTO save(ProductRequestDTO productRequestDTO) {
-        Product product = ProductMapper.toEntity(productRequestDTO);
-        return ProductMapper.toResponseDTO(productRepository.save(product));
+        Product product = productRepository.save(ProductMapper.toEntity(productRequestDTO));
+        productEventPublisher.publishChange(product);
+        productCache.evict(product.getId());
+        productIndexer.indexed(product);
+        return ProductMapper.toResponseDTO(product);
     }
 
-    @Transactional(readOnly = true)
+    // Not transactional: a cache hit never opens a session, and a miss loads through the repository's own read-only one.
     public ProductResponseDTO findById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id " + id));
-        return ProductMapper.toResponseDTO(product);
+        ProductResponseDTO product = productCache.get(id, this::loadById);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found with id " + id);
+        }
+        return product;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductResponseDTO> findAllByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return productRepository.findByIdIn(new HashSet<>(ids))
+                .stream()
+                .map(ProductMapper::toResponseDTO)
+                .collect(Collectors.toList());
     }
 
     @Transactional
     public void deleteById(Long id) {
         productRepository.deleteById(id);
+        productEventPublisher.publishDelete(id);
+        productCache.evict(id);
+        productIndexer.removed(id);
     }
 
     @Transactional
     public ProductResponseDTO updateProduct(Long id, ProductRequestDTO productRequestDTO) {
         Product oldProduct = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with id " + id));
+        if (productRequestDTO.getVersion() != null && !productRequestDTO.getVersion().equals(oldProduct.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Product.class, id);
+        }
 
         oldProduct.setName(productRequestDTO.getName());
         oldProduct.setDescription(productRequestDTO.getDescription());
@@ -65,48 +152,226 @@ public class ProductService {
             oldProduct.setRating(ProductMapper.toEntity(productRequestDTO).getRating());
         }
 
-        return ProductMapper.toResponseDTO(productRepository.save(oldProduct));
+        Product product = productRepository.save(oldProduct);
+        productEventPublisher.publishChange(product);
+        productCache.evict(id);
+        productIndexer.indexed(product);
+        return ProductMapper.toResponseDTO(product);
     }
 
 
-    @Transactional(readOnly = true)
     public ProductResponseDTO findProductByName(String name) {
-        Product product = productRepository.findByName(name)
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with name " + name));
-        return ProductMapper.toResponseDTO(product);
+        ProductResponseDTO product = productCache.getByName(name,
+                key -> productRepository.findIdByName(key).orElse(null), this::loadById);
+        if (product == null) {
+            throw new ProductNotFoundException("Product not found with name " + name);
+        }
+        return product;
     }
 
     @Transactional(readOnly = true)
-    public Page<ProductResponseDTO> findAllPaged(int page,int size,String sortBy,String direction){
-        Sort sort = direction.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-        Pageable pageable = PageRequest.of(page,size,sort);
-        return productRepository.findAll(pageable)
+    public Slice<ProductResponseDTO> findAllPaged(int page,int size,String sortBy,String direction){
+        Sort sort = ProductSortField.fromProperty(sortBy).sort(directionOf(direction));
+        return productRepository.findAllBy(PageRequest.of(Math.max(page, 0), pageSize(size), sort))
                 .map(ProductMapper::toResponseDTO);
     }
 
+    // Keyset pages: the cursor carries the sort and the last row's key, so any page costs one index range scan.
+    // sortBy and direction only apply to the first page. Products with no value in the sort column follow all the
+    // others in id order, read by a second query once the keyed rows run out.
+    @Transactional(readOnly = true)
+    public ProductPageDTO scroll(String sortBy, String direction, int size, String cursor) {
+        ProductCursor after = cursor == null || cursor.isBlank() ? null : ProductCursor.decode(cursor);
+        ProductSortField field = after != null ? after.getField() : ProductSortField.fromProperty(sortBy);
+        Sort.Direction order = after != null ? after.getDirection() : directionOf(direction);
+        int limit = pageSize(size);
+
+        List<Product> rows = new ArrayList<>(limit);
+        boolean hasNext = false;
+        if (after == null || !after.isPastValues()) {
+            ScrollPosition position = after != null ? after.position() : ScrollPosition.keyset();
+            Specification<Product> bound = after != null ? after.bound() : field.present();
+            Window<Product> window = productRepository.findBy(bound, query -> query
+                    .sortBy(field.sort(order))
+                    .limit(limit)
+                    .scroll(position));
+            rows.addAll(window.getContent());
+            hasNext = window.hasNext();
+        }
+        if (!hasNext && field.isNullable()) {
+            Specification<Product> withoutValue = after != null && after.isPastValues()
+                    ? after.remainingWithoutValue() : field.absent();
+            int remaining = limit - rows.size();
+            if (remaining == 0) {
+                hasNext = productRepository.exists(withoutValue);
+            } else {
+                Window<Product> window = productRepository.findBy(withoutValue, query -> query
+                        .sortBy(ProductSortField.ID.sort(order))
+                        .limit(remaining)
+                        .scroll(ScrollPosition.keyset()));
+                rows.addAll(window.getContent());
+                hasNext = window.hasNext();
+            }
+        }
+
+        List<ProductResponseDTO> items = rows.stream()
+                .map(ProductMapper::toResponseDTO)
+                .toList();
+        String nextCursor = hasNext && !items.isEmpty()
+                ? ProductCursor.after(field, order, items.get(items.size() - 1)).encode()
+                : null;
+        return new ProductPageDTO(items, nextCursor);
+    }
+
     @Transactional
     public List<ProductResponseDTO> saveAll(List<ProductRequestDTO> productRequestDTOS) {
         List<Product> products = productRequestDTOS.stream()
                 .map(ProductMapper::toEntity)
                 .toList();
         List<Product> savedProducts = productRepository.saveAll(products);
+        savedProducts.forEach(productEventPublisher::publishChange);
+        productCache.evictAll(savedProducts.stream().map(Product::getId).toList());
+        productIndexer.indexedAll(savedProducts);
         return savedProducts.stream()
                 .map(ProductMapper::toResponseDTO)
                 .collect(Collectors.toList());
     }
 
-    @KafkaListener(topics = "stock-update", groupId = "product-service")
+    @Transactional
+    @KafkaListener(
+            topics = "stock-update",
+            groupId = "product-service",
+            autoStartup = "#{!${products.stock-events.batch.enabled:false}}"
+    )
     public void handleStockUpdateEvent(StockUpdateEvent stockUpdateEvent) {
-        Product product = productRepository.findById(stockUpdateEvent.getProductId())
-                .orElseThrow(() -> new ProductNotFoundException("Product not found with id " + stockUpdateEvent.getProductId()));
+        decreaseStock(stockUpdateEvent.getProductId(), stockUpdateEvent.getQuantity());
+    }
+
+    @Transactional
+    @KafkaListener(
+            topics = "stock-reservation",
+            groupId = "product-service",
+            concurrency = "${products.stock-events.concurrency:6}",
+            autoStartup = "#{!${products.stock-events.batch.enabled:false}}"
+    )
+    public void handleStockReservationEvent(StockReservationEvent stockReservationEvent, Acknowledgment acknowledgment) {
+        stockReservationService.settle(List.of(stockReservationEvent));
+        acknowledgment.acknowledge();
+    }
 
-        int newStockQuantity = product.getStockQuantity() - stockUpdateEvent.getQuantity();
-        if (newStockQuantity < 0) {
-            log.warn("{} is negative", stockUpdateEvent.getProductId());
-            return;
+    // Reservation events in the poll are settled together. Plain stock updates are summed per product and applied as one
+    // guarded UPDATE per product in a JDBC batch; a product whose sum is rejected falls back to its individual deltas.
+    @Transactional
+    @KafkaListener(
+            id = "stock-batch",
+            topics = {"stock-update", "stock-reservation"},
+            groupId = "product-service",
+            containerFactory = "stockBatchListenerFactory",
+            concurrency = "${products.stock-events.concurrency:6}",
+            autoStartup = "${products.stock-events.batch.enabled:false}"
+    )
+    public void handleStockEventBatch(List<Object> events, Acknowledgment acknowledgment) {
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        List<StockLine> lines = new ArrayList<>();
+        List<StockReservationEvent> reservationEvents = new ArrayList<>();
+        for (Object event : events) {
+            if (event instanceof StockUpdateEvent stockUpdateEvent) {
+                lines.add(new StockLine(stockUpdateEvent.getProductId(), stockUpdateEvent.getQuantity()));
+            } else if (event instanceof StockReservationEvent stockReservationEvent) {
+                reservationEvents.add(stockReservationEvent);
+            } else {
+                log.warn("Ignoring unexpected stock event {}", event);
+            }
+        }
+        if (!reservationEvents.isEmpty()) {
+            stockReservationService.settle(reservationEvents);
         }
-        product.setStockQuantity(newStockQuantity);
-        productRepository.save(product);
-        log.info("{} stock updated", stockUpdateEvent.getProductId());
+        lines.forEach(line -> deltas.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        Set<Long> rejected = deltas.isEmpty() ? Set.of() : productStockJdbcRepository.decreaseStock(deltas);
+        for (StockLine line : lines) {
+            if (rejected.contains(line.getProductId())) {
+                decreaseStock(line.getProductId(), line.getQuantity());
+            }
+        }
+        Set<Long> updated = new HashSet<>(deltas.keySet());
+        updated.removeAll(rejected);
+        List<Product> changed = productRepository.findByIdIn(updated);
+        changed.forEach(productEventPublisher::publishChange);
+        productCache.evictAll(updated);
+        productIndexer.indexedAll(changed);
+
+        acknowledgment.acknowledge();
+        log.info("Settled {} reservations and applied {} stock lines to {} products",
+                reservationEvents.size(), lines.size(), deltas.size());
+    }
+
+    private boolean decreaseStock(Long productId, Integer quantity) {
+        if (productRepository.decreaseStock(productId, quantity) == 0) {
+            log.warn("{} not updated: product missing or not enough stock for {}", productId, quantity);
+            return false;
+        }
+        productRepository.findById(productId).ifPresent(product -> {
+            productEventPublisher.publishChange(product);
+            productIndexer.indexed(product);
+        });
+        productCache.evict(productId);
+        log.info("{} stock updated", productId);
+        return true;
+    }
+
+    // Filters and counts come from the facet bitmaps; only the page of matching products is read from the database.
+    // With a query, products containing any of its terms are kept and the best size of them by relevance returned.
+    public ProductSearchResultDTO search(String query, List<String> categories, List<String> ratings,
+                                         List<String> prices, Boolean inStock, Long after, int size) {
+        List<Rating> ratingValues = ratings.stream().map(rating -> {
+            try {
+                return Rating.valueOf(rating.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidSearchRequestException("Unknown rating " + rating);
+            }
+        }).toList();
+        List<Integer> priceBands = prices.stream().map(price -> {
+            int band = productFacetIndex.priceBand(price);
+            if (band < 0) {
+                throw new InvalidSearchRequestException("Unknown price band " + price);
+            }
+            return band;
+        }).toList();
+
+        boolean ranked = query != null && !query.isBlank();
+        List<String> terms = ranked ? ProductTextIndex.tokenize(query).stream().distinct().toList() : List.of();
+        ProductFacetIndex.Result result = productFacetIndex.search(categories, ratingValues, priceBands, inStock,
+                ranked ? productTextIndex.matching(terms) : null, after != null ? after : 0, pageSize(size));
+        List<Long> ids = !ranked ? result.ids() : productTextIndex.top(terms, result.matching(), pageSize(size))
+                .stream()
+                .map(ProductTextIndex.Hit::productId)
+                .toList();
+
+        Map<Long, Product> products = ids.isEmpty() ? Map.of() : productRepository.findByIdIn(ids).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product));
+        List<ProductResponseDTO> items = ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(ProductMapper::toResponseDTO)
+                .toList();
+        return new ProductSearchResultDTO(result.total(), items, ranked ? null : result.nextAfter(), result.facets());
+    }
+
+    // Answered from the in-memory suggestion snapshot only, so it is cheap enough to call on every keystroke.
+    public List<String> suggest(String prefix, int size) {
+        return productSuggestIndex.suggest(prefix, Math.max(1, Math.min(size, productSuggestProperties.getMaxSuggestions())));
+    }
+
+    private int pageSize(int size) {
+        return Math.max(1, Math.min(size, productCatalogProperties.getMaxPageSize()));
+    }
+
+    private static Sort.Direction directionOf(String direction) {
+        return "desc".equalsIgnoreCase(direction) ? Sort.Direction.DESC : Sort.Direction.ASC;
+    }
+
+    private ProductResponseDTO loadById(Long id) {
+        return productRepository.findById(id).map(ProductMapper::toResponseDTO).orElse(null);
     }
 }
@@ -0,0 +1,257 @@
+package org.example.productservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.dto.ProductSuggestionRow;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.repository.ProductRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Name suggestions from an immutable snapshot: the distinct product names in case-insensitive order, so the names
+// starting with a prefix are one contiguous range found by binary search, and a max segment tree over their
+// popularity, which yields that range's best k in k lookups. Writes only compare against the snapshot and mark it
+// stale; a background rebuild reads the names again and swaps the new snapshot in, so lookups never lock or wait.
+@Slf4j
+@Component
+public class ProductSuggestIndex implements ProductIndex {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>(Snapshot.EMPTY);
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+    // While a rebuild reads, the snapshot it will swap in may differ from current, so every write marks it stale.
+    private volatile boolean rebuilding;
+
+    public ProductSuggestIndex(ProductRepository productRepository, TransactionTemplate transactionTemplate) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Higher rated products first, then those in stock.
+    public static int popularity(Rating rating, Integer stockQuantity) {
+        return (rating != null ? rating.getValue() : 0) * 2 + (stockQuantity != null && stockQuantity > 0 ? 1 : 0);
+    }
+
+    @Override
+    public void index(Product product) {
+        if (rebuilding || !current.get().holds(product.getId(), product.getName(),
+                popularity(product.getRating(), product.getStockQuantity()))) {
+            stale.set(true);
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        if (rebuilding || current.get().contains(productId)) {
+            stale.set(true);
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        return current.get().top(prefix, limit);
+    }
+
+    // A write landing while a rebuild runs marks the snapshot stale again, so the next run picks it up, even when
+    // it matches the snapshot being replaced: the rows may have been read before it.
+    @Scheduled(fixedDelayString = "${products.suggest.rebuild-delay-ms:2000}")
+    public void rebuildIfStale() {
+        if (!stale.getAndSet(false)) {
+            return;
+        }
+        rebuilding = true;
+        try {
+            long started = System.nanoTime();
+            Snapshot snapshot = transactionTemplate.execute(status -> {
+                try (Stream<ProductSuggestionRow> rows = productRepository.streamSuggestionRows()) {
+                    return Snapshot.build(rows);
+                }
+            });
+            current.set(snapshot);
+            log.debug("Rebuilt name suggestions over {} products in {} ms", snapshot.productIds.length,
+                    (System.nanoTime() - started) / 1_000_000);
+        } catch (RuntimeException e) {
+            stale.set(true);
+            log.warn("Could not rebuild name suggestions: {}", e.getMessage());
+        } finally {
+            rebuilding = false;
+        }
+    }
+
+    private static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(new long[0], new int[0], new int[0], new String[0], new int[0]);
+
+        // per product, in id order
+        private final long[] productIds;
+        private final int[] productNames;
+        private final int[] productPopularity;
+        // per distinct name, in case-insensitive order; popularity is the highest among products with that name
+        private final String[] names;
+        private final int[] popularity;
+        // tree[1] covers every name, tree[i] covers its children 2i and 2i + 1; leaves start at names.length
+        private final int[] tree;
+
+        private Snapshot(long[] productIds, int[] productNames, int[] productPopularity, String[] names,
+                         int[] popularity) {
+            this.productIds = productIds;
+            this.productNames = productNames;
+            this.productPopularity = productPopularity;
+            this.names = names;
+            this.popularity = popularity;
+            int n = names.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        static Snapshot build(Stream<ProductSuggestionRow> rows) {
+            List<ProductSuggestionRow> named = rows.filter(row -> row.getName() != null && !row.getName().isBlank())
+                    .toList();
+            int count = named.size();
+            long[] productIds = new long[count];
+            int[] productPopularity = new int[count];
+            for (int i = 0; i < count; i++) {
+                productIds[i] = named.get(i).getId();
+                productPopularity[i] = popularity(named.get(i).getRating(), named.get(i).getStockQuantity());
+            }
+
+            int[] byName = IntStream.range(0, count)
+                    .boxed()
+                    .sorted(Comparator.comparing(i -> named.get(i).getName(), String.CASE_INSENSITIVE_ORDER))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            int[] productNames = new int[count];
+            List<String> names = new ArrayList<>();
+            int[] popularity = new int[count];
+            for (int product : byName) {
+                String name = named.get(product).getName();
+                if (names.isEmpty() || !names.get(names.size() - 1).equalsIgnoreCase(name)) {
+                    names.add(name);
+                }
+                int entry = names.size() - 1;
+                productNames[product] = entry;
+                popularity[entry] = Math.max(popularity[entry], productPopularity[product]);
+            }
+            return new Snapshot(productIds, productNames, productPopularity, names.toArray(new String[0]),
+                    Arrays.copyOf(popularity, names.size()));
+        }
+
+        boolean contains(long productId) {
+            return Arrays.binarySearch(productIds, productId) >= 0;
+        }
+
+        // Names differing only in case share an entry spelled as the first of them, so a product whose name has
+        // another spelling in the snapshot is still held by it.
+        boolean holds(long productId, String name, int productPopularity) {
+            int at = Arrays.binarySearch(productIds, productId);
+            return at >= 0 && names[productNames[at]].equalsIgnoreCase(name)
+                    && this.productPopularity[at] == productPopularity;
+        }
+
+        // The names in [lo, hi) start with the prefix. Ranges wait in a queue ordered by their best name; taking
+        // the best range's best name splits it around that name, so each suggestion costs one tree lookup per half.
+        List<String> top(String prefix, int limit) {
+            String start = prefix == null ? "" : prefix.stripLeading();
+            if (start.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+            int lo = bound(start, false);
+            int hi = bound(start, true);
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    (left, right) -> left[2] == better(left[2], right[2]) ? -1 : 1);
+            offer(ranges, lo, hi);
+            List<String> suggestions = new ArrayList<>(limit);
+            while (suggestions.size() < limit && !ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                suggestions.add(names[range[2]]);
+                offer(ranges, range[0], range[2]);
+                offer(ranges, range[2] + 1, range[1]);
+            }
+            return suggestions;
+        }
+
+        private void offer(PriorityQueue<int[]> ranges, int lo, int hi) {
+            if (lo < hi) {
+                ranges.add(new int[]{lo, hi, best(lo, hi)});
+            }
+        }
+
+        private int best(int lo, int hi) {
+            int n = names.length;
+            int result = -1;
+            for (lo += n, hi += n; lo < hi; lo >>= 1, hi >>= 1) {
+                if ((lo & 1) == 1) {
+                    result = better(result, tree[lo++]);
+                }
+                if ((hi & 1) == 1) {
+                    result = better(result, tree[--hi]);
+                }
+            }
+            return result;
+        }
+
+        // More popular, or earlier in name order on a tie.
+        private int better(int left, int right) {
+            if (left < 0 || right < 0) {
+                return Math.max(left, right);
+            }
+            if (popularity[left] != popularity[right]) {
+                return popularity[left] > popularity[right] ? left : right;
+            }
+            return Math.min(left, right);
+        }
+
+        // First name that does not sort before the prefix, or with after, first one that sorts after it.
+        private int bound(String prefix, boolean after) {
+            int lo = 0;
+            int hi = names.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = comparePrefix(names[mid], prefix);
+                if (cmp < 0 || (after && cmp == 0)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // Orders a name against the prefix on the name's first prefix.length() characters, the way
+        // String.CASE_INSENSITIVE_ORDER compares them; 0 means the name starts with the prefix.
+        private static int comparePrefix(String name, String prefix) {
+            int length = Math.min(name.length(), prefix.length());
+            for (int i = 0; i < length; i++) {
+                char c1 = name.charAt(i);
+                char c2 = prefix.charAt(i);
+                if (c1 != c2) {
+                    c1 = Character.toUpperCase(c1);
+                    c2 = Character.toUpperCase(c2);
+                    if (c1 != c2) {
+                        c1 = Character.toLowerCase(c1);
+                        c2 = Character.toLowerCase(c2);
+                        if (c1 != c2) {
+                            return c1 - c2;
+                        }
+                    }
+                }
+            }
+            return name.length() < prefix.length() ? -1 : 0;
+        }
+    }
+}
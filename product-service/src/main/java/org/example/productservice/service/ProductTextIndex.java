@@ -0,0 +1,343 @@
+package org.example.productservice.service;
+
+import org.example.productservice.config.ProductTextSearchProperties;
+import org.example.productservice.model.Product;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over name, category and description. Products are numbered densely as they are indexed, reusing the
+// numbers of removed ones, and each term keeps its postings as parallel arrays of those doc numbers and weighted
+// frequencies sorted by doc; a query walks the postings of its terms together, scores each product with BM25 as it
+// goes and keeps the best k in a bounded min-heap.
+@Component
+public class ProductTextIndex implements ProductIndex {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "in", "is", "of", "on", "or", "the", "to", "with");
+    private static final Comparator<Hit> WORST_FIRST = Comparator.comparingDouble(Hit::score)
+            .thenComparing(Comparator.comparingLong(Hit::productId).reversed());
+
+    private final float k1;
+    private final float b;
+    private final int nameWeight;
+    private final int categoryWeight;
+    private final int descriptionWeight;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+    private final Map<Long, Integer> docs = new HashMap<>();
+    private final ArrayDeque<Integer> freeDocs = new ArrayDeque<>();
+    // per doc: its product id, term ids, weighted length and indexed version
+    private long[] docProducts = new long[1024];
+    private int[][] docTerms = new int[1024][];
+    private int[] docLengths = new int[1024];
+    private long[] docVersions = new long[1024];
+    private int nextDoc;
+    private int docCount;
+    private long totalLength;
+    // Ids removed while the startup load runs; ids are never reused, so any later snapshot of one is stale.
+    private Set<Long> removedDuringLoad = new HashSet<>();
+
+    public ProductTextIndex(ProductTextSearchProperties properties) {
+        this.k1 = properties.getK1();
+        this.b = properties.getB();
+        this.nameWeight = properties.getNameWeight();
+        this.categoryWeight = properties.getCategoryWeight();
+        this.descriptionWeight = properties.getDescriptionWeight();
+    }
+
+    public record Hit(long productId, float score) {
+    }
+
+    // Lower-cased runs of letters and digits, without stop words.
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = lower.substring(start, i);
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    @Override
+    public void index(Product product) {
+        long version = product.getVersion() != null ? product.getVersion() : 0;
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(frequencies, product.getName(), nameWeight)
+                + count(frequencies, product.getCategory(), categoryWeight)
+                + count(frequencies, product.getDescription(), descriptionWeight);
+
+        lock.writeLock().lock();
+        try {
+            if (removedDuringLoad != null && removedDuringLoad.contains(product.getId())) {
+                return;
+            }
+            Integer indexed = docs.get(product.getId());
+            // An older snapshot, e.g. the startup load reading a row just before a write to it was applied.
+            if (indexed != null && docVersions[indexed] > version) {
+                return;
+            }
+            int doc = indexed != null ? indexed : allocate(product.getId());
+            removeTerms(doc);
+            // A product without any terms keeps its doc, so its version still turns away older snapshots.
+            int[] terms = new int[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> frequency : frequencies.entrySet()) {
+                int term = termIds.computeIfAbsent(frequency.getKey(), key -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+                postings.get(term).put(doc, frequency.getValue());
+                terms[i++] = term;
+            }
+            docTerms[doc] = terms;
+            docLengths[doc] = length;
+            docVersions[doc] = version;
+            docCount++;
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            if (removedDuringLoad != null) {
+                removedDuringLoad.add(productId);
+            }
+            Integer doc = docs.remove(productId);
+            if (doc != null) {
+                removeTerms(doc);
+                freeDocs.push(doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void loaded() {
+        lock.writeLock().lock();
+        try {
+            removedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Products containing any of the terms, a bit per product id as ProductFacetIndex keeps them.
+    public BitSet matching(List<String> terms) {
+        BitSet result = new BitSet();
+        lock.readLock().lock();
+        try {
+            for (String term : terms) {
+                Integer id = termIds.get(term);
+                if (id != null) {
+                    Postings list = postings.get(id);
+                    for (int i = 0; i < list.size; i++) {
+                        result.set(Math.toIntExact(docProducts[list.docs[i]]));
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // The k best scoring products containing any of the terms, best first, ties in id order. Products outside
+    // candidates, a bit per product id, are skipped when it is not null. Terms are scanned with MaxScore pruning:
+    // no term can add more than idf * (k1 + 1), so once the heap is full, the low-idf terms whose bounds together
+    // cannot beat its worst score stop driving the scan and are only probed for products found through the others.
+    public List<Hit> top(List<String> terms, BitSet candidates, int k) {
+        lock.readLock().lock();
+        try {
+            List<Postings> found = new ArrayList<>();
+            for (String term : terms) {
+                Integer id = termIds.get(term);
+                if (id != null && postings.get(id).size > 0) {
+                    found.add(postings.get(id));
+                }
+            }
+            if (found.isEmpty() || k <= 0) {
+                return List.of();
+            }
+            // ascending upper bound, i.e. most common term first
+            found.sort(Comparator.comparingInt((Postings list) -> list.size).reversed());
+            int n = found.size();
+            Postings[] lists = found.toArray(new Postings[0]);
+            float[] idf = new float[n];
+            float[] bounds = new float[n];
+            for (int i = 0; i < n; i++) {
+                idf[i] = (float) Math.log(1 + (docCount - lists[i].size + 0.5) / (lists[i].size + 0.5));
+                bounds[i] = idf[i] * (k1 + 1) + (i > 0 ? bounds[i - 1] : 0);
+            }
+            float averageLength = (float) totalLength / docCount;
+
+            PriorityQueue<Hit> best = new PriorityQueue<>(k, WORST_FIRST);
+            float threshold = -1;
+            int essential = 0;
+            int[] cursors = new int[n];
+            while (true) {
+                int doc = Integer.MAX_VALUE;
+                for (int i = essential; i < n; i++) {
+                    if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] < doc) {
+                        doc = lists[i].docs[cursors[i]];
+                    }
+                }
+                if (doc == Integer.MAX_VALUE) {
+                    break;
+                }
+                float norm = k1 * (1 - b + b * docLengths[doc] / averageLength);
+                float score = 0;
+                for (int i = essential; i < n; i++) {
+                    if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+                        int frequency = lists[i].freqs[cursors[i]++];
+                        score += idf[i] * frequency * (k1 + 1) / (frequency + norm);
+                    }
+                }
+                long productId = docProducts[doc];
+                if (candidates != null && !candidates.get(Math.toIntExact(productId))) {
+                    continue;
+                }
+                // Doc order is not id order, so a product that can only tie the worst kept one may still replace it.
+                for (int i = essential - 1; i >= 0 && score + bounds[i] >= threshold; i--) {
+                    cursors[i] = lists[i].seek(cursors[i], doc);
+                    if (cursors[i] < lists[i].size && lists[i].docs[cursors[i]] == doc) {
+                        int frequency = lists[i].freqs[cursors[i]];
+                        score += idf[i] * frequency * (k1 + 1) / (frequency + norm);
+                    }
+                }
+                Hit hit = new Hit(productId, score);
+                if (best.size() < k) {
+                    best.add(hit);
+                } else if (WORST_FIRST.compare(hit, best.peek()) > 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+                if (best.size() == k) {
+                    threshold = best.peek().score();
+                    while (essential < n && bounds[essential] < threshold) {
+                        essential++;
+                    }
+                }
+            }
+            List<Hit> hits = new ArrayList<>(best);
+            hits.sort(WORST_FIRST.reversed());
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocate(long productId) {
+        int doc;
+        if (!freeDocs.isEmpty()) {
+            doc = freeDocs.pop();
+        } else {
+            doc = nextDoc++;
+            if (doc == docTerms.length) {
+                int capacity = doc * 2;
+                docProducts = Arrays.copyOf(docProducts, capacity);
+                docTerms = Arrays.copyOf(docTerms, capacity);
+                docLengths = Arrays.copyOf(docLengths, capacity);
+                docVersions = Arrays.copyOf(docVersions, capacity);
+            }
+        }
+        docs.put(productId, doc);
+        docProducts[doc] = productId;
+        return doc;
+    }
+
+    private void removeTerms(int doc) {
+        int[] terms = docTerms[doc];
+        if (terms == null) {
+            return;
+        }
+        for (int term : terms) {
+            postings.get(term).remove(doc);
+        }
+        docCount--;
+        totalLength -= docLengths[doc];
+        docTerms[doc] = null;
+        docLengths[doc] = 0;
+    }
+
+    private static int count(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> tokens = tokenize(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    // Sorted by doc; new products take the next doc unless one was freed, so adds are usually appends.
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void put(int doc, int freq) {
+            int at = size > 0 && docs[size - 1] < doc ? -(size + 1) : Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                freqs[at] = freq;
+                return;
+            }
+            at = -(at + 1);
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(freqs, at, freqs, at + 1, size - at);
+            docs[at] = doc;
+            freqs[at] = freq;
+            size++;
+        }
+
+        // Position of the first entry at or after doc, starting from the given position.
+        int seek(int from, int doc) {
+            if (from >= size || docs[from] >= doc) {
+                return from;
+            }
+            int at = Arrays.binarySearch(docs, from, size, doc);
+            return at >= 0 ? at : -(at + 1);
+        }
+
+        void remove(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at >= 0) {
+                System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+                System.arraycopy(freqs, at + 1, freqs, at, size - at - 1);
+                size--;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.productservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationExpiryScheduler {
+
+    private final TimingWheel<UUID> reservationExpiryWheel;
+    private final StockReservationService stockReservationService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restorePendingReservations() {
+        log.info("Scheduled expiry for {} held reservations", stockReservationService.scheduleHeldReservations());
+    }
+
+    @Scheduled(fixedRateString = "${products.reservations.tick-ms:100}")
+    public void expireDueReservations() {
+        for (UUID orderNumber : reservationExpiryWheel.advanceTo(System.currentTimeMillis())) {
+            try {
+                stockReservationService.expire(orderNumber);
+            } catch (RuntimeException e) {
+                log.warn("Could not expire reservation for order {}: {}", orderNumber, e.getMessage());
+            }
+        }
+    }
+}
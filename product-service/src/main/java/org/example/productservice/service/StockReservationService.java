@@ -0,0 +1,349 @@
+package org.example.productservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.commonevents.StockLine;
+import org.example.commonevents.StockReleaseEvent;
+import org.example.commonevents.StockReservationEvent;
+import org.example.commonevents.StockResultEvent;
+import org.example.productservice.config.ReservationProperties;
+import org.example.productservice.dto.ReservationRequestDTO;
+import org.example.productservice.dto.ReservationResponseDTO;
+import org.example.productservice.exceptions.InsufficientStockException;
+import org.example.productservice.exceptions.ReservationNotFoundException;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.ReservationOutcome;
+import org.example.productservice.model.ReservationStatus;
+import org.example.productservice.model.StockReservation;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ProductStockJdbcRepository;
+import org.example.productservice.repository.ReservationOutcomeRepository;
+import org.example.productservice.repository.StockReservationRepository;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private static final String REJECTED = "REJECTED";
+
+    private final StockReservationRepository stockReservationRepository;
+    private final ReservationOutcomeRepository reservationOutcomeRepository;
+    private final ProductRepository productRepository;
+    private final ProductStockJdbcRepository productStockJdbcRepository;
+    private final ProductEventPublisher productEventPublisher;
+    private final TimingWheel<UUID> reservationExpiryWheel;
+    private final ReservationProperties properties;
+    private final ProductCache productCache;
+    private final ProductIndexer productIndexer;
+
+    // Stock is taken with the guarded decrement in product id order; one short line rolls the whole reservation back.
+    @Transactional
+    public ReservationResponseDTO reserve(ReservationRequestDTO request) {
+        UUID orderNumber = request.getOrderNumber();
+        List<StockReservation> existing = stockReservationRepository.findByOrderNumber(orderNumber);
+        if (!existing.isEmpty()) {
+            return toResponse(orderNumber, existing.get(0).getStatus(), existing.get(0).getExpiresAt());
+        }
+
+        SortedMap<Long, Integer> quantities = new TreeMap<>();
+        request.getLines().forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        Instant expiresAt = Instant.now().plusMillis(properties.getTtlMs());
+        List<StockReservation> reservations = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (productRepository.decreaseStock(productId, quantity) == 0) {
+                throw new InsufficientStockException("Not enough stock to reserve " + quantity + " of product " + productId);
+            }
+            reservations.add(new StockReservation(null, orderNumber, productId, quantity, ReservationStatus.HELD, expiresAt));
+        });
+        stockReservationRepository.saveAll(reservations);
+        publishChanges(quantities.keySet());
+
+        afterCommit(() -> reservationExpiryWheel.schedule(orderNumber, expiresAt.toEpochMilli()));
+        return toResponse(orderNumber, ReservationStatus.HELD, expiresAt);
+    }
+
+    // Reserves each request all-or-nothing, independently of the others, in one transaction. As in settle, the batch's
+    // decrements are summed per product into one guarded UPDATE each; requests on products rejected as a sum are retried
+    // line by line and give back what they took if they still come up short. Answers are in request order, with
+    // REJECTED for requests that could not be met and the stored state for order numbers already reserved.
+    @Transactional
+    public List<ReservationResponseDTO> reserveAll(List<ReservationRequestDTO> requests) {
+        Map<UUID, StockReservation> existing = new HashMap<>();
+        stockReservationRepository.findByOrderNumberIn(requests.stream().map(ReservationRequestDTO::getOrderNumber).toList())
+                .forEach(reservation -> existing.putIfAbsent(reservation.getOrderNumber(), reservation));
+
+        List<SortedMap<Long, Integer>> quantities = new ArrayList<>(requests.size());
+        Set<UUID> seen = new HashSet<>();
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        for (ReservationRequestDTO request : requests) {
+            if (existing.containsKey(request.getOrderNumber()) || !seen.add(request.getOrderNumber())) {
+                quantities.add(null);
+                continue;
+            }
+            SortedMap<Long, Integer> lines = new TreeMap<>();
+            request.getLines().forEach(line -> lines.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+            lines.forEach((productId, quantity) -> deltas.merge(productId, quantity, Integer::sum));
+            quantities.add(lines);
+        }
+
+        Set<Long> rejectedProducts = deltas.isEmpty() ? Set.of() : productStockJdbcRepository.decreaseStock(deltas);
+        Instant expiresAt = Instant.now().plusMillis(properties.getTtlMs());
+        Map<UUID, ReservationResponseDTO> responses = new HashMap<>();
+        List<StockReservation> reservations = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            SortedMap<Long, Integer> lines = quantities.get(i);
+            if (lines == null) {
+                continue;
+            }
+            UUID orderNumber = requests.get(i).getOrderNumber();
+            Map<Long, Integer> taken = new TreeMap<>();
+            boolean held = true;
+            for (Map.Entry<Long, Integer> line : lines.entrySet()) {
+                if (!rejectedProducts.contains(line.getKey())
+                        || held && productRepository.decreaseStock(line.getKey(), line.getValue()) == 1) {
+                    taken.put(line.getKey(), line.getValue());
+                } else {
+                    held = false;
+                }
+            }
+            if (held) {
+                taken.forEach((productId, quantity) -> reservations.add(
+                        new StockReservation(null, orderNumber, productId, quantity, ReservationStatus.HELD, expiresAt)));
+                responses.put(orderNumber, toResponse(orderNumber, ReservationStatus.HELD, expiresAt));
+            } else {
+                taken.forEach(productRepository::increaseStock);
+                responses.put(orderNumber, new ReservationResponseDTO(orderNumber, REJECTED, null));
+            }
+        }
+        stockReservationRepository.saveAll(reservations);
+        publishChanges(deltas.keySet());
+
+        List<UUID> heldOrders = reservations.stream().map(StockReservation::getOrderNumber).distinct().toList();
+        afterCommit(() -> heldOrders.forEach(orderNumber -> reservationExpiryWheel.schedule(orderNumber, expiresAt.toEpochMilli())));
+
+        List<ReservationResponseDTO> results = new ArrayList<>(requests.size());
+        for (ReservationRequestDTO request : requests) {
+            StockReservation stored = existing.get(request.getOrderNumber());
+            results.add(stored != null
+                    ? toResponse(request.getOrderNumber(), stored.getStatus(), stored.getExpiresAt())
+                    : responses.get(request.getOrderNumber()));
+        }
+        return results;
+    }
+
+    @Transactional
+    public ReservationResponseDTO confirm(UUID orderNumber) {
+        if (confirmReserved(List.of(orderNumber)).isEmpty()) {
+            throw new ReservationNotFoundException("Reservation not found for order " + orderNumber);
+        }
+        return toResponse(orderNumber, ReservationStatus.CONFIRMED, null);
+    }
+
+    // Returns the order numbers that have a reservation in any state; only HELD ones change.
+    @Transactional
+    public Set<UUID> confirmReserved(Collection<UUID> orderNumbers) {
+        if (orderNumbers.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> reserved = stockReservationRepository.findByOrderNumberIn(orderNumbers).stream()
+                .map(StockReservation::getOrderNumber)
+                .collect(Collectors.toSet());
+        if (!reserved.isEmpty()) {
+            stockReservationRepository.transitionOrders(reserved, ReservationStatus.HELD, ReservationStatus.CONFIRMED);
+            afterCommit(() -> reserved.forEach(reservationExpiryWheel::cancel));
+        }
+        return reserved;
+    }
+
+    // Settles stock-reservation events in one transaction and publishes a StockResultEvent for each. Lines already held
+    // by a synchronous reserve are confirmed. Other events reserve their lines all-or-nothing straight into CONFIRMED:
+    // their decrements are summed per product into one guarded UPDATE each, products rejected as a sum are retried line
+    // by line, and an event that still comes up short gives back what it took. An order split across partitions has
+    // one event per partition, so a rejection is recorded for the order: it answers a redelivery of the same event, and
+    // the order's remaining events are rejected too, as they are once it has been released.
+    @Transactional
+    public List<Boolean> settle(List<StockReservationEvent> events) {
+        List<UUID> orderNumbers = events.stream().map(StockReservationEvent::getOrderNumber).distinct().toList();
+        Map<UUID, Map<Long, StockReservation>> existing = new HashMap<>();
+        stockReservationRepository.findByOrderNumberIn(orderNumbers)
+                .forEach(reservation -> existing.computeIfAbsent(reservation.getOrderNumber(), key -> new HashMap<>())
+                        .put(reservation.getProductId(), reservation));
+        Set<UUID> closed = reservationOutcomeRepository.findAllById(orderNumbers).stream()
+                .map(ReservationOutcome::getOrderNumber)
+                .collect(Collectors.toCollection(HashSet::new));
+
+        Boolean[] results = new Boolean[events.size()];
+        Set<UUID> toConfirm = new HashSet<>();
+        SortedMap<Long, Integer> deltas = new TreeMap<>();
+        for (int i = 0; i < events.size(); i++) {
+            StockReservationEvent event = events.get(i);
+            Map<Long, StockReservation> held = existing.getOrDefault(event.getOrderNumber(), Map.of());
+            if (closed.contains(event.getOrderNumber())) {
+                results[i] = false;
+            } else if (event.getLines().stream().allMatch(line -> held.containsKey(line.getProductId()))) {
+                results[i] = event.getLines().stream()
+                        .map(line -> held.get(line.getProductId()).getStatus())
+                        .allMatch(status -> status == ReservationStatus.HELD || status == ReservationStatus.CONFIRMED);
+                if (results[i]) {
+                    toConfirm.add(event.getOrderNumber());
+                }
+            } else {
+                event.getLines().forEach(line -> deltas.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+            }
+        }
+        if (!toConfirm.isEmpty()) {
+            stockReservationRepository.transitionOrders(toConfirm, ReservationStatus.HELD, ReservationStatus.CONFIRMED);
+            afterCommit(() -> toConfirm.forEach(reservationExpiryWheel::cancel));
+        }
+
+        Set<Long> rejectedProducts = deltas.isEmpty() ? Set.of() : productStockJdbcRepository.decreaseStock(deltas);
+        List<StockReservation> reservations = new ArrayList<>();
+        List<ReservationOutcome> outcomes = new ArrayList<>();
+        Instant now = Instant.now();
+        for (int i = 0; i < events.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            StockReservationEvent event = events.get(i);
+            List<StockLine> taken = new ArrayList<>();
+            // an earlier event of the same order in this batch may have been rejected
+            boolean confirmed = !closed.contains(event.getOrderNumber());
+            for (StockLine line : event.getLines()) {
+                if (!rejectedProducts.contains(line.getProductId())
+                        || confirmed && productRepository.decreaseStock(line.getProductId(), line.getQuantity()) == 1) {
+                    taken.add(line);
+                } else {
+                    confirmed = false;
+                }
+            }
+            if (confirmed) {
+                taken.forEach(line -> reservations.add(new StockReservation(null, event.getOrderNumber(),
+                        line.getProductId(), line.getQuantity(), ReservationStatus.CONFIRMED, now)));
+            } else {
+                taken.forEach(line -> productRepository.increaseStock(line.getProductId(), line.getQuantity()));
+                if (closed.add(event.getOrderNumber())) {
+                    outcomes.add(new ReservationOutcome(event.getOrderNumber(), ReservationStatus.REJECTED));
+                }
+            }
+            results[i] = confirmed;
+        }
+        stockReservationRepository.saveAll(reservations);
+        reservationOutcomeRepository.saveAll(outcomes);
+        publishChanges(deltas.keySet());
+
+        for (int i = 0; i < events.size(); i++) {
+            StockReservationEvent event = events.get(i);
+            productEventPublisher.publishStockResult(new StockResultEvent(event.getOrderId(), event.getOrderNumber(),
+                    event.getLines().stream().map(StockLine::getProductId).toList(), results[i]));
+        }
+        return List.of(results);
+    }
+
+    @Transactional
+    public ReservationResponseDTO release(UUID orderNumber) {
+        if (restore(orderNumber, EnumSet.of(ReservationStatus.HELD, ReservationStatus.CONFIRMED),
+                ReservationStatus.RELEASED) < 0) {
+            throw new ReservationNotFoundException("Reservation not found for order " + orderNumber);
+        }
+        return toResponse(orderNumber, ReservationStatus.RELEASED, null);
+    }
+
+    @Transactional
+    public void expire(UUID orderNumber) {
+        int restored = restore(orderNumber, EnumSet.of(ReservationStatus.HELD), ReservationStatus.EXPIRED);
+        if (restored > 0) {
+            log.info("Reservation for order {} expired, {} lines returned to stock", orderNumber, restored);
+        }
+    }
+
+    @Transactional
+    @KafkaListener(topics = "stock-release", groupId = "product-service")
+    public void handleStockReleaseEvent(StockReleaseEvent stockReleaseEvent, Acknowledgment acknowledgment) {
+        UUID orderNumber = stockReleaseEvent.getOrderNumber();
+        if (restore(orderNumber, EnumSet.of(ReservationStatus.HELD, ReservationStatus.CONFIRMED),
+                ReservationStatus.RELEASED) < 0) {
+            log.info("No reservation to release for order {} yet, its events will be rejected", orderNumber);
+        }
+        // The release may overtake events of the order still waiting on other partitions; they must not take stock.
+        if (!reservationOutcomeRepository.existsById(orderNumber)) {
+            reservationOutcomeRepository.save(new ReservationOutcome(orderNumber, ReservationStatus.RELEASED));
+        }
+        acknowledgment.acknowledge();
+    }
+
+    // Expiry lives only in the wheel, so pending holds are put back into it once at startup instead of being polled.
+    @Transactional(readOnly = true)
+    public int scheduleHeldReservations() {
+        Map<UUID, Instant> deadlines = new HashMap<>();
+        for (StockReservation reservation : stockReservationRepository.findByStatus(ReservationStatus.HELD)) {
+            deadlines.merge(reservation.getOrderNumber(), reservation.getExpiresAt(),
+                    (left, right) -> left.isBefore(right) ? left : right);
+        }
+        deadlines.forEach((orderNumber, expiresAt) ->
+                reservationExpiryWheel.schedule(orderNumber, expiresAt.toEpochMilli()));
+        return deadlines.size();
+    }
+
+    // Each line is moved out of an allowed state with a guarded update before its stock is given back, so concurrent
+    // release and expiry of the same order restore stock once. Returns -1 when the order has no reservation.
+    private int restore(UUID orderNumber, Set<ReservationStatus> from, ReservationStatus to) {
+        List<StockReservation> reservations = stockReservationRepository.findByOrderNumber(orderNumber);
+        if (reservations.isEmpty()) {
+            return -1;
+        }
+        Set<Long> productIds = new HashSet<>();
+        for (StockReservation reservation : reservations) {
+            if (stockReservationRepository.transition(reservation.getId(), from, to) == 1) {
+                productRepository.increaseStock(reservation.getProductId(), reservation.getQuantity());
+                productIds.add(reservation.getProductId());
+            }
+        }
+        publishChanges(productIds);
+        afterCommit(() -> reservationExpiryWheel.cancel(orderNumber));
+        return productIds.size();
+    }
+
+    private void publishChanges(Set<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            List<Product> changed = productRepository.findByIdIn(productIds);
+            changed.forEach(productEventPublisher::publishChange);
+            productCache.evictAll(productIds);
+            productIndexer.indexedAll(changed);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static ReservationResponseDTO toResponse(UUID orderNumber, ReservationStatus status, Instant expiresAt) {
+        return new ReservationResponseDTO(orderNumber, status.name(), expiresAt);
+    }
+}
@@ -0,0 +1,110 @@
+package org.example.productservice.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel. Level 0 has one slot per tick; every level above covers wheelSize times the span of the
+ * level below. A timer sits in the lowest level whose span still reaches its deadline and is moved one level down
+ * when the slot above comes round, so schedule, cancel and expiry are O(1) per timer regardless of how many are pending.
+ * Deadlines beyond the top level are parked in its furthest slot and re-placed when it cascades.
+ */
+public class TimingWheel<K> {
+    private final long tickMs;
+    private final int bitsPerLevel;
+    private final int mask;
+    private final int levels;
+    private final List<List<Set<K>>> wheels = new ArrayList<>();
+    private final Map<K, Long> deadlines = new HashMap<>();
+    private final Map<K, Set<K>> bucketByKey = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        if (tickMs <= 0 || Integer.bitCount(wheelSize) != 1 || levels < 1
+                || Integer.numberOfTrailingZeros(wheelSize) * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("tickMs must be positive, wheelSize a power of two and levels at least 1");
+        }
+        this.tickMs = tickMs;
+        this.bitsPerLevel = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        for (int level = 0; level < levels; level++) {
+            List<Set<K>> slots = new ArrayList<>(wheelSize);
+            for (int slot = 0; slot < wheelSize; slot++) {
+                slots.add(new HashSet<>());
+            }
+            wheels.add(slots);
+        }
+        this.currentTick = startMs / tickMs;
+    }
+
+    public synchronized void schedule(K key, long deadlineMs) {
+        cancel(key);
+        long deadlineTick = Math.max((deadlineMs + tickMs - 1) / tickMs, currentTick + 1);
+        deadlines.put(key, deadlineTick);
+        place(key, deadlineTick);
+    }
+
+    public synchronized boolean cancel(K key) {
+        if (deadlines.remove(key) == null) {
+            return false;
+        }
+        bucketByKey.remove(key).remove(key);
+        return true;
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+
+    public synchronized List<K> advanceTo(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        long targetTick = nowMs / tickMs;
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < levels && (currentTick & ((1L << (level * bitsPerLevel)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            Set<K> due = wheels.get(0).get(slot(currentTick, 0));
+            for (K key : due) {
+                deadlines.remove(key);
+                bucketByKey.remove(key);
+                expired.add(key);
+            }
+            due.clear();
+        }
+        return expired;
+    }
+
+    private void cascade(int level) {
+        Set<K> bucket = wheels.get(level).get(slot(currentTick, level));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<K> keys = new ArrayList<>(bucket);
+        bucket.clear();
+        for (K key : keys) {
+            place(key, deadlines.get(key));
+        }
+    }
+
+    private void place(K key, long deadlineTick) {
+        long ticks = deadlineTick - currentTick;
+        int level = 0;
+        while (level < levels - 1 && ticks >= 1L << ((level + 1) * bitsPerLevel)) {
+            level++;
+        }
+        long placementTick = Math.min(deadlineTick, currentTick + (1L << (levels * bitsPerLevel)) - 1);
+        Set<K> bucket = wheels.get(level).get(slot(placementTick, level));
+        bucket.add(key);
+        bucketByKey.put(key, bucket);
+    }
+
+    private int slot(long tick, int level) {
+        return (int) ((tick >>> (level * bitsPerLevel)) & mask);
+    }
+}
@@ -2,6 +2,7 @@ package org.example.productservice.topics;
 
 import org.apache.kafka.clients.admin.AdminClientConfig;
 import org.apache.kafka.clients.admin.NewTopic;
+import org.example.productservice.config.StockEventProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
@@ -21,10 +22,43 @@ public class KafkaTopicConfig {
     }
 
     @Bean
-    public NewTopic stockUpdateTopic() {
+    public NewTopic stockUpdateTopic(StockEventProperties properties) {
         return TopicBuilder.name("stock-update")
+                .partitions(properties.getPartitions())
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockReservationTopic(StockEventProperties properties) {
+        return TopicBuilder.name("stock-reservation")
+                .partitions(properties.getPartitions())
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockReleaseTopic(StockEventProperties properties) {
+        return TopicBuilder.name("stock-release")
+                .partitions(properties.getPartitions())
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockResultTopic(StockEventProperties properties) {
+        return TopicBuilder.name("stock-result")
+                .partitions(properties.getPartitions())
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic productChangeTopic() {
+        return TopicBuilder.name("product-change")
                 .partitions(1)
                 .replicas(1)
+                .compact()
                 .build();
     }
 }
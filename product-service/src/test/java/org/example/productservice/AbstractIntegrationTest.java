@@ -0,0 +1,23 @@
+package org.example.productservice;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+// The whole service without a broker, registry or listener containers; every subclass gets the same context and
+// database, so tests only look at the products they created.
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "eureka.client.enabled=false",
+        "spring.kafka.listener.auto-startup=false"
+})
+public abstract class AbstractIntegrationTest {
+
+    @MockitoBean
+    protected KafkaTemplate<String, Object> kafkaTemplate;
+
+    // no broker in tests, so the topic admin would only retry connections during startup
+    @MockitoBean
+    protected KafkaAdmin kafkaAdmin;
+}
@@ -0,0 +1,102 @@
+package org.example.productservice.benchmark;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.example.productservice.AbstractIntegrationTest;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.repository.ProductRepository;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Bulk product inserts with one statement per row, which is all IDENTITY ids allowed, against the JDBC batches of the
+// batching profile that pooled sequence ids made possible. Run with: mvn -Pbenchmark test -Dtest=ProductInsertBenchmark
+@Slf4j
+@Tag("benchmark")
+class ProductInsertBenchmark extends AbstractIntegrationTest {
+
+    private static final int PRODUCTS = 5_000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkInsert() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            Result oneByOne = measure(1, statistics);
+            Result batched = measure(50, statistics);
+            log.info("saveAll of {} products, one statement per row: {} ms, {} statements", PRODUCTS,
+                    oneByOne.millis(), oneByOne.statements());
+            log.info("saveAll of {} products, JDBC batches of 50:     {} ms, {} statements", PRODUCTS,
+                    batched.millis(), batched.statements());
+            assertThat(batched.statements()).isLessThan(oneByOne.statements() / 10);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    // Mean over the measured rounds of one saveAll transaction; the table is emptied between rounds.
+    private Result measure(int batchSize, Statistics statistics) {
+        long totalNanos = 0;
+        long statements = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + ROUNDS; round++) {
+            List<Product> products = products();
+            statistics.clear();
+            long start = System.nanoTime();
+            transactionTemplate.executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                productRepository.saveAll(products);
+            });
+            long elapsed = System.nanoTime() - start;
+            if (round >= WARMUP_ROUNDS) {
+                totalNanos += elapsed;
+                statements += statistics.getPrepareStatementCount();
+            }
+            productRepository.deleteAllInBatch();
+        }
+        return new Result(totalNanos / ROUNDS / 1_000_000, statements / ROUNDS);
+    }
+
+    private static List<Product> products() {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Benchmark product " + i);
+            product.setDescription("Description " + i);
+            product.setPrice(BigDecimal.valueOf(i % 500, 2));
+            product.setStockQuantity(i % 100);
+            product.setCategory("category-" + i % 20);
+            product.setRating(Rating.THREE_STARS);
+            products.add(product);
+        }
+        return products;
+    }
+
+    private record Result(long millis, long statements) {
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.productservice.dto;
+
+import org.example.productservice.exceptions.InvalidPageRequestException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+    @Test
+    void roundTripsEveryField() {
+        ProductResponseDTO product = product(42L, "Desk lamp", new BigDecimal("19.90"), 7, "lighting");
+
+        for (ProductSortField field : ProductSortField.values()) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                ProductCursor cursor = ProductCursor.after(field, direction, product);
+
+                ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+                assertThat(decoded.getField()).isEqualTo(field);
+                assertThat(decoded.getDirection()).isEqualTo(direction);
+                assertThat(decoded.getId()).isEqualTo(42L);
+                assertThat(decoded.isPastValues()).isFalse();
+                assertThat(decoded.position().getKeys())
+                        .containsEntry(field.getProperty(), field.keyOf(product))
+                        .containsEntry("id", 42L);
+            }
+        }
+    }
+
+    @Test
+    void roundTripsValuesContainingTheSeparatorOrNothing() {
+        for (String name : new String[]{"a|b", "|", "||x||", "", "null", " "}) {
+            ProductCursor cursor = ProductCursor.after(ProductSortField.NAME, Sort.Direction.ASC,
+                    product(5L, name, BigDecimal.ONE, 1, "c"));
+
+            ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+            assertThat(decoded.getValue()).isEqualTo(name);
+            assertThat(decoded.isPastValues()).isFalse();
+            assertThat(decoded.getId()).isEqualTo(5L);
+        }
+    }
+
+    @Test
+    void missingKeyIsEncodedAsNoValueRatherThanTheStringNull() {
+        ProductCursor cursor = ProductCursor.after(ProductSortField.CATEGORY, Sort.Direction.DESC,
+                product(9L, "Desk lamp", BigDecimal.ONE, 1, null));
+
+        ProductCursor decoded = ProductCursor.decode(cursor.encode());
+
+        assertThat(decoded.isPastValues()).isTrue();
+        assertThat(decoded.getValue()).isNull();
+        assertThat(decoded.getField()).isEqualTo(ProductSortField.CATEGORY);
+        assertThat(decoded.getDirection()).isEqualTo(Sort.Direction.DESC);
+        assertThat(decoded.getId()).isEqualTo(9L);
+
+        ProductCursor literal = ProductCursor.decode(ProductCursor.after(ProductSortField.CATEGORY, Sort.Direction.DESC,
+                product(9L, "Desk lamp", BigDecimal.ONE, 1, "null")).encode());
+        assertThat(literal.isPastValues()).isFalse();
+        assertThat(literal.getValue()).isEqualTo("null");
+    }
+
+    @Test
+    void missingNumericKeysRoundTrip() {
+        ProductResponseDTO product = product(3L, "Desk lamp", null, null, "lighting");
+
+        for (ProductSortField field : new ProductSortField[]{ProductSortField.PRICE, ProductSortField.STOCK_QUANTITY}) {
+            ProductCursor decoded = ProductCursor.decode(ProductCursor.after(field, Sort.Direction.ASC, product).encode());
+
+            assertThat(decoded.isPastValues()).isTrue();
+            assertThat(decoded.getId()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    void positionCarriesTypedKeys() {
+        KeysetScrollPosition position = ProductCursor.decode(ProductCursor.after(ProductSortField.PRICE,
+                Sort.Direction.ASC, product(1L, "a", new BigDecimal("2.50"), 1, "c")).encode()).position();
+
+        assertThat(position.getKeys().get("price")).isEqualTo(new BigDecimal("2.50"));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> ProductCursor.decode("not base64!")).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> ProductCursor.decode(raw("NAME|ASC"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> ProductCursor.decode(raw("COLOUR|ASC|red|1"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> ProductCursor.decode(raw("NAME|UP|a|1"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> ProductCursor.decode(raw("PRICE|ASC|cheap|1"))).isInstanceOf(InvalidPageRequestException.class);
+        assertThatThrownBy(() -> ProductCursor.decode(raw("NAME|ASC|a|x"))).isInstanceOf(InvalidPageRequestException.class);
+        // ids are never missing, so an id cursor without a value is not one this service wrote
+        assertThatThrownBy(() -> ProductCursor.decode(raw("ID|ASC|1"))).isInstanceOf(InvalidPageRequestException.class);
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ProductResponseDTO product(Long id, String name, BigDecimal price, Integer stock, String category) {
+        ProductResponseDTO product = new ProductResponseDTO();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(price);
+        product.setStockQuantity(stock);
+        product.setCategory(category);
+        return product;
+    }
+}
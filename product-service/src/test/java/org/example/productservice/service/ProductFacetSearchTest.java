@@ -0,0 +1,161 @@
+package org.example.productservice.service;
+
+import org.example.productservice.AbstractIntegrationTest;
+import org.example.productservice.config.ProductFacetProperties;
+import org.example.productservice.dto.ProductResponseDTO;
+import org.example.productservice.dto.ProductSearchResultDTO;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Searches a small fixture in two categories of its own. Other tests may have left products behind, so counts are
+// only compared where a category filter keeps them out, and category counts only for the fixture's categories.
+class ProductFacetSearchTest extends AbstractIntegrationTest {
+
+    private static final String TOOLS = "facet-tools";
+    private static final String TOYS = "facet-toys";
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductIndexer productIndexer;
+
+    private Map<String, Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> saved = productRepository.saveAll(List.of(
+                product("a", TOOLS, Rating.FIVE_STARS, "5", 3),
+                product("b", TOOLS, Rating.FIVE_STARS, "30", 0),
+                product("c", TOOLS, Rating.THREE_STARS, "30", 2),
+                product("d", TOYS, Rating.FIVE_STARS, "120", 1),
+                product("e", TOYS, Rating.TWO_STARS, "5", 0),
+                product("f", TOYS, null, "600", 4)));
+        productIndexer.indexedAll(saved);
+        ids = saved.stream().collect(Collectors.toMap(Product::getName, Product::getId));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(ids.values());
+        ids.values().forEach(productIndexer::removed);
+    }
+
+    @Test
+    void countsEveryFacetOfTheFixture() {
+        ProductSearchResultDTO result = search(List.of(TOOLS, TOYS), List.of(), List.of(), null);
+
+        assertThat(result.getTotal()).isEqualTo(6);
+        assertThat(names(result)).containsExactlyElementsOf(byId("a", "b", "c", "d", "e", "f"));
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsEntry(TOOLS, 3L)
+                .containsEntry(TOYS, 3L);
+        assertThat(nonZero(result, ProductFacetIndex.RATING))
+                .isEqualTo(Map.of("FIVE_STARS", 3L, "THREE_STARS", 1L, "TWO_STARS", 1L));
+        assertThat(nonZero(result, ProductFacetIndex.PRICE))
+                .isEqualTo(Map.of("0-10", 2L, "25-50", 2L, "100-250", 1L, "500+", 1L));
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK)).isEqualTo(Map.of("true", 4L, "false", 2L));
+    }
+
+    @Test
+    void eachFacetIsCountedWithTheOtherFacetsFiltersApplied() {
+        ProductSearchResultDTO result = search(List.of(TOOLS, TOYS), List.of("five_stars"), List.of(), true);
+
+        assertThat(result.getTotal()).isEqualTo(2);
+        assertThat(names(result)).containsExactlyElementsOf(byId("a", "d"));
+        // rating and stock filters, not the category one
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY))
+                .containsEntry(TOOLS, 1L)
+                .containsEntry(TOYS, 1L);
+        // category and stock filters: a, c, d and f, which has no rating
+        assertThat(nonZero(result, ProductFacetIndex.RATING)).isEqualTo(Map.of("FIVE_STARS", 2L, "THREE_STARS", 1L));
+        assertThat(nonZero(result, ProductFacetIndex.PRICE)).isEqualTo(Map.of("0-10", 1L, "100-250", 1L));
+        // category and rating filters: a, b and d
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK)).isEqualTo(Map.of("true", 2L, "false", 1L));
+    }
+
+    @Test
+    void valuesWithinAFacetAreOred() {
+        ProductSearchResultDTO result = search(List.of(TOOLS), List.of(), List.of("0-10", "25-50"), false);
+
+        assertThat(result.getTotal()).isEqualTo(1);
+        assertThat(names(result)).containsExactly("b");
+        assertThat(nonZero(result, ProductFacetIndex.PRICE)).isEqualTo(Map.of("25-50", 1L));
+        assertThat(result.getFacets().get(ProductFacetIndex.IN_STOCK)).isEqualTo(Map.of("true", 2L, "false", 1L));
+    }
+
+    @Test
+    void removedProductsLeaveTheCounts() {
+        productRepository.deleteById(ids.get("d"));
+        productIndexer.removed(ids.get("d"));
+
+        ProductSearchResultDTO result = search(List.of(TOOLS, TOYS), List.of(), List.of(), null);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getFacets().get(ProductFacetIndex.CATEGORY)).containsEntry(TOYS, 2L);
+        assertThat(nonZero(result, ProductFacetIndex.PRICE)).doesNotContainKey("100-250");
+    }
+
+    // The startup load may read a product just before its delete commits and index that snapshot afterwards.
+    @Test
+    void productRemovedDuringTheStartupLoadStaysRemoved() {
+        ProductFacetIndex index = new ProductFacetIndex(new ProductFacetProperties());
+        index.remove(7L);
+        index.index(product("g", TOOLS, Rating.ONE_STAR, "5", 1, 7L));
+
+        assertThat(all(index).total()).isZero();
+
+        index.loaded();
+        index.index(product("h", TOOLS, Rating.ONE_STAR, "5", 1, 8L));
+
+        assertThat(all(index).ids()).containsExactly(8L);
+    }
+
+    private ProductSearchResultDTO search(List<String> categories, List<String> ratings, List<String> prices,
+                                          Boolean inStock) {
+        return productService.search(null, categories, ratings, prices, inStock, null, 50);
+    }
+
+    private List<String> names(ProductSearchResultDTO result) {
+        return result.getItems().stream().map(ProductResponseDTO::getName).toList();
+    }
+
+    // sequence ids are not handed out in saveAll order, so the expected id order comes from the saved products
+    private List<String> byId(String... names) {
+        return Set.of(names).stream().sorted((left, right) -> Long.compare(ids.get(left), ids.get(right))).toList();
+    }
+
+    private static Map<String, Long> nonZero(ProductSearchResultDTO result, String facet) {
+        return result.getFacets().get(facet).entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private static ProductFacetIndex.Result all(ProductFacetIndex index) {
+        return index.search(List.of(), List.of(), List.of(), null, null, 0, 10);
+    }
+
+    private static Product product(String name, String category, Rating rating, String price, int stock) {
+        return product(name, category, rating, price, stock, null);
+    }
+
+    private static Product product(String name, String category, Rating rating, String price, int stock, Long id) {
+        return new Product(id, name, name, new BigDecimal(price), stock, category, null, rating, null);
+    }
+}
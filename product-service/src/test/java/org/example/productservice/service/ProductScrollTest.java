@@ -0,0 +1,102 @@
+package org.example.productservice.service;
+
+import org.example.productservice.AbstractIntegrationTest;
+import org.example.productservice.dto.ProductPageDTO;
+import org.example.productservice.dto.ProductResponseDTO;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Walks whole listings page by page; other tests may have left products behind, so only this test's are compared.
+class ProductScrollTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        ids = productRepository.saveAll(List.of(
+                product("scroll-b", "garden"),
+                product("scroll-a", null),
+                product("scroll-c", "garden"),
+                product("scroll-d", null),
+                product("scroll-e", "books"),
+                product("scroll-f", null))).stream().map(Product::getId).toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(ids);
+    }
+
+    @Test
+    void productsWithoutCategoryFollowTheOthersInBothDirections() {
+        List<String> withoutCategory = productRepository.findAllById(ids).stream()
+                .filter(product -> product.getCategory() == null)
+                .sorted(Comparator.comparing(Product::getId))
+                .map(Product::getName)
+                .toList();
+        List<String> ascending = new ArrayList<>(List.of("scroll-e", "scroll-b", "scroll-c"));
+        ascending.addAll(withoutCategory);
+        List<String> descending = new ArrayList<>(List.of("scroll-c", "scroll-b", "scroll-e"));
+        for (int i = withoutCategory.size() - 1; i >= 0; i--) {
+            descending.add(withoutCategory.get(i));
+        }
+
+        for (int size : new int[]{1, 2, 3, 5, 50}) {
+            assertThat(names(walk("category", "asc", size))).containsExactlyElementsOf(ascending);
+            assertThat(names(walk("category", "desc", size))).containsExactlyElementsOf(descending);
+        }
+    }
+
+    @Test
+    void listingWithoutMissingKeysIsUnchanged() {
+        assertThat(names(walk("name", "asc", 2)))
+                .containsExactly("scroll-a", "scroll-b", "scroll-c", "scroll-d", "scroll-e", "scroll-f");
+        List<String> byIdDescending = productRepository.findAllById(ids).stream()
+                .sorted(Comparator.comparing(Product::getId).reversed())
+                .map(Product::getName)
+                .toList();
+        assertThat(names(walk("id", "desc", 4))).containsExactlyElementsOf(byIdDescending);
+    }
+
+    private List<ProductResponseDTO> walk(String sortBy, String direction, int size) {
+        List<ProductResponseDTO> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProductPageDTO page = productService.scroll(sortBy, direction, size, cursor);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(size);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertThat(all.stream().map(ProductResponseDTO::getId).collect(Collectors.toSet())).hasSameSizeAs(all);
+        return all;
+    }
+
+    private List<String> names(List<ProductResponseDTO> products) {
+        Set<Long> mine = Set.copyOf(ids);
+        return products.stream().filter(product -> mine.contains(product.getId())).map(ProductResponseDTO::getName).toList();
+    }
+
+    private static Product product(String name, String category) {
+        return new Product(null, name, name, BigDecimal.ONE, 1, category, null, Rating.THREE_STARS, null);
+    }
+}
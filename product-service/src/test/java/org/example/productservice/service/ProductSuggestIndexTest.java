@@ -0,0 +1,141 @@
+package org.example.productservice.service;
+
+import org.example.productservice.dto.ProductSuggestionRow;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// The snapshot is read from a stubbed repository; runOnRead stands in for a write that commits while a rebuild is
+// reading the rows.
+class ProductSuggestIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSuggestIndex index = new ProductSuggestIndex(productRepository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    private List<ProductSuggestionRow> rows = new ArrayList<>();
+    private Runnable runOnRead = () -> { };
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.streamSuggestionRows()).thenAnswer(invocation -> {
+            List<ProductSuggestionRow> read = List.copyOf(rows);
+            runOnRead.run();
+            return read.stream();
+        });
+        rows.add(row(1, "Desk lamp", Rating.FOUR_STARS, 3));
+        rows.add(row(2, "desk mat", Rating.FOUR_STARS, 7));
+        rows.add(row(3, "Desk organizer", Rating.FIVE_STARS, 0));
+        rows.add(row(4, "Deck chair", Rating.TWO_STARS, 1));
+        rows.add(row(5, "Walnut shelf", Rating.THREE_STARS, 2));
+        rows.add(row(6, "DESK LAMP", Rating.ONE_STAR, 0));
+        index.rebuildIfStale();
+    }
+
+    @Test
+    void emptyOrBlankPrefixSuggestsNothing() {
+        assertThat(index.suggest("", 5)).isEmpty();
+        assertThat(index.suggest("   ", 5)).isEmpty();
+        assertThat(index.suggest(null, 5)).isEmpty();
+    }
+
+    @Test
+    void prefixOutsideTheNamesSuggestsNothing() {
+        assertThat(index.suggest("Zebra", 5)).isEmpty();
+        assertThat(index.suggest("Walnut shelves", 5)).isEmpty();
+        assertThat(index.suggest("A", 5)).isEmpty();
+        assertThat(index.suggest("walnut", 5)).containsExactly("Walnut shelf");
+    }
+
+    @Test
+    void morePopularNamesComeFirstAndTiesGoInNameOrder() {
+        // "Desk organizer" is out of stock but rated higher; the lamp and the mat tie and are listed by name,
+        // the lamp's two rows being one name with the better of their popularities
+        assertThat(index.suggest("de", 10)).containsExactly("Desk organizer", "Desk lamp", "desk mat", "Deck chair");
+        assertThat(index.suggest("DESK", 2)).containsExactly("Desk organizer", "Desk lamp");
+        assertThat(index.suggest("desk ", 10)).containsExactly("Desk organizer", "Desk lamp", "desk mat");
+    }
+
+    @Test
+    void writesAreVisibleOnceTheRebuiltSnapshotIsSwappedIn() {
+        index.index(product(7, "Desk fan", Rating.FIVE_STARS, 4));
+
+        assertThat(index.suggest("desk f", 5)).isEmpty();
+
+        rows.add(row(7, "Desk fan", Rating.FIVE_STARS, 4));
+        index.rebuildIfStale();
+
+        assertThat(index.suggest("desk", 2)).containsExactly("Desk fan", "Desk organizer");
+    }
+
+    @Test
+    void writesMatchingTheSnapshotDoNotRebuildIt() {
+        index.index(product(2, "desk mat", Rating.FOUR_STARS, 7));
+        // shares the "Desk lamp" entry with product 1
+        index.index(product(6, "DESK LAMP", Rating.ONE_STAR, 0));
+        index.remove(99L);
+        index.rebuildIfStale();
+
+        verify(productRepository, times(1)).streamSuggestionRows();
+    }
+
+    @Test
+    void writeDuringARebuildMarksTheSwappedInSnapshotStale() {
+        // created and indexed before the rebuild, deleted while it reads, so the swapped in snapshot still has it
+        rows.add(row(8, "Desk clock", Rating.FIVE_STARS, 1));
+        index.index(product(8, "Desk clock", Rating.FIVE_STARS, 1));
+        runOnRead = () -> {
+            rows.removeIf(row -> row.getId() == 8);
+            index.remove(8L);
+        };
+        index.rebuildIfStale();
+        assertThat(index.suggest("desk c", 5)).containsExactly("Desk clock");
+
+        runOnRead = () -> { };
+        index.rebuildIfStale();
+
+        assertThat(index.suggest("desk c", 5)).isEmpty();
+    }
+
+    @Test
+    void failedRebuildKeepsTheOldSnapshotAndRetries() {
+        index.index(product(9, "Desk pad", Rating.FIVE_STARS, 1));
+        runOnRead = () -> {
+            throw new IllegalStateException("database unavailable");
+        };
+        index.rebuildIfStale();
+
+        assertThat(index.suggest("desk", 1)).containsExactly("Desk organizer");
+
+        rows.add(row(9, "Desk pad", Rating.FIVE_STARS, 1));
+        runOnRead = () -> { };
+        index.rebuildIfStale();
+
+        assertThat(index.suggest("desk p", 1)).containsExactly("Desk pad");
+    }
+
+    private static ProductSuggestionRow row(long id, String name, Rating rating, int stock) {
+        return new ProductSuggestionRow(id, name, rating, stock);
+    }
+
+    private static Product product(long id, String name, Rating rating, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setRating(rating);
+        product.setStockQuantity(stock);
+        return product;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.productservice.service;
+
+import org.example.productservice.config.ProductTextSearchProperties;
+import org.example.productservice.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+// Checks MaxScore against scoring every product in full with the BM25 formula. Scores are summed in a different
+// order by the two, so they are compared within a tolerance and equal scores may come back in either order.
+class ProductTextIndexTest {
+
+    private static final String[] WORDS = {
+            "lamp", "desk", "oak", "steel", "chair", "table", "lounge", "garden", "light", "shelf", "black", "white"};
+    private static final double TOLERANCE = 1e-4;
+
+    private final ProductTextSearchProperties properties = new ProductTextSearchProperties();
+    private final ProductTextIndex index = new ProductTextIndex(properties);
+
+    @BeforeEach
+    void setUp() {
+        index.loaded();
+    }
+
+    @Test
+    void topMatchesBruteForceScoring() {
+        Random random = new Random(42);
+        Map<Long, Product> products = new HashMap<>();
+        for (long id = 1; id <= 400; id++) {
+            Product product = product(id, words(random, 1, 3), WORDS[random.nextInt(3)], words(random, 0, 8));
+            products.put(id, product);
+            index.index(product);
+        }
+        // removals and updates free docs and refill them out of id order
+        for (long id = 3; id <= 400; id += 7) {
+            index.remove(id);
+            products.remove(id);
+        }
+        for (long id = 2; id <= 400; id += 11) {
+            if (products.containsKey(id)) {
+                Product product = product(id, words(random, 1, 3), null, words(random, 0, 8));
+                product.setVersion(1L);
+                products.put(id, product);
+                index.index(product);
+            }
+        }
+        for (long id = 10_000; id < 10_040; id++) {
+            Product product = product(id, words(random, 1, 3), null, words(random, 0, 8));
+            products.put(id, product);
+            index.index(product);
+        }
+
+        for (int query = 0; query < 50; query++) {
+            List<String> terms = List.of(WORDS[random.nextInt(WORDS.length)], WORDS[random.nextInt(WORDS.length)],
+                    WORDS[random.nextInt(WORDS.length)]).stream().distinct().toList();
+            BitSet candidates = null;
+            if (query % 2 == 1) {
+                candidates = new BitSet();
+                for (long id : products.keySet()) {
+                    if (random.nextBoolean()) {
+                        candidates.set((int) id);
+                    }
+                }
+            }
+            for (int k : new int[]{1, 5, 20}) {
+                assertSameAsBruteForce(products, terms, candidates, k);
+            }
+        }
+    }
+
+    @Test
+    void sparseIdsDoNotSizeTheIndex() {
+        index.index(product(5L, "oak desk", null, null));
+        index.index(product(2_000_000_000L, "oak shelf", null, null));
+
+        assertThat(index.top(List.of("oak"), null, 10))
+                .extracting(ProductTextIndex.Hit::productId)
+                .containsExactly(5L, 2_000_000_000L);
+        assertThat(index.matching(List.of("shelf")).stream().boxed().toList()).containsExactly(2_000_000_000);
+    }
+
+    @Test
+    void productWithoutTermsStillTurnsAwayOlderSnapshots() {
+        Product current = product(9L, null, null, null);
+        current.setVersion(2L);
+        index.index(current);
+        Product older = product(9L, "oak desk", null, null);
+        older.setVersion(1L);
+
+        index.index(older);
+
+        assertThat(index.top(List.of("oak"), null, 10)).isEmpty();
+    }
+
+    @Test
+    void productRemovedDuringTheStartupLoadStaysRemoved() {
+        ProductTextIndex index = new ProductTextIndex(properties);
+        index.remove(7L);
+        index.index(product(7L, "oak desk", null, null));
+
+        assertThat(index.matching(List.of("oak")).isEmpty()).isTrue();
+
+        index.loaded();
+        index.index(product(8L, "oak desk", null, null));
+
+        assertThat(index.matching(List.of("oak")).stream().boxed().toList()).containsExactly(8);
+    }
+
+    private void assertSameAsBruteForce(Map<Long, Product> products, List<String> terms, BitSet candidates, int k) {
+        Map<Long, Double> expected = bruteForce(products, terms);
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(expected.entrySet());
+        ranked.removeIf(entry -> candidates != null && !candidates.get(entry.getKey().intValue()));
+        ranked.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        List<ProductTextIndex.Hit> hits = index.top(terms, candidates, k);
+
+        assertThat(hits).hasSize(Math.min(k, ranked.size()));
+        for (int i = 0; i < hits.size(); i++) {
+            ProductTextIndex.Hit hit = hits.get(i);
+            assertThat(expected).containsKey(hit.productId());
+            assertThat(candidates == null || candidates.get((int) hit.productId())).isTrue();
+            assertThat((double) hit.score()).isCloseTo(expected.get(hit.productId()), within(TOLERANCE));
+            assertThat((double) hit.score()).isCloseTo(ranked.get(i).getValue(), within(TOLERANCE));
+        }
+        assertThat(hits).isSortedAccordingTo(Comparator.comparingDouble(ProductTextIndex.Hit::score).reversed());
+    }
+
+    private Map<Long, Double> bruteForce(Map<Long, Product> products, List<String> terms) {
+        Map<Long, Map<String, Integer>> frequencies = new HashMap<>();
+        Map<Long, Integer> lengths = new HashMap<>();
+        long totalLength = 0;
+        for (Product product : products.values()) {
+            Map<String, Integer> counts = new HashMap<>();
+            int length = count(counts, product.getName(), properties.getNameWeight())
+                    + count(counts, product.getCategory(), properties.getCategoryWeight())
+                    + count(counts, product.getDescription(), properties.getDescriptionWeight());
+            frequencies.put(product.getId(), counts);
+            lengths.put(product.getId(), length);
+            totalLength += length;
+        }
+        double averageLength = (double) totalLength / products.size();
+        double k1 = properties.getK1();
+        double b = properties.getB();
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            long containing = frequencies.values().stream().filter(counts -> counts.containsKey(term)).count();
+            double idf = Math.log(1 + (products.size() - containing + 0.5) / (containing + 0.5));
+            frequencies.forEach((id, counts) -> {
+                Integer frequency = counts.get(term);
+                if (frequency != null) {
+                    double norm = k1 * (1 - b + b * lengths.get(id) / averageLength);
+                    scores.merge(id, idf * frequency * (k1 + 1) / (frequency + norm), Double::sum);
+                }
+            });
+        }
+        return scores;
+    }
+
+    private static int count(Map<String, Integer> counts, String text, int weight) {
+        List<String> tokens = ProductTextIndex.tokenize(text);
+        tokens.forEach(token -> counts.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private static String words(Random random, int min, int max) {
+        StringBuilder text = new StringBuilder();
+        for (int i = min + random.nextInt(max - min + 1); i > 0; i--) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static Product product(Long id, String name, String category, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory(category);
+        product.setDescription(description);
+        return product;
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.productservice.service;
+
+import org.example.commonevents.StockLine;
+import org.example.commonevents.StockReleaseEvent;
+import org.example.commonevents.StockReservationEvent;
+import org.example.productservice.AbstractIntegrationTest;
+import org.example.productservice.dto.ReservationLineDTO;
+import org.example.productservice.dto.ReservationRequestDTO;
+import org.example.productservice.dto.ReservationResponseDTO;
+import org.example.productservice.model.Product;
+import org.example.productservice.model.Rating;
+import org.example.productservice.model.ReservationStatus;
+import org.example.productservice.model.StockReservation;
+import org.example.productservice.repository.ProductRepository;
+import org.example.productservice.repository.ReservationOutcomeRepository;
+import org.example.productservice.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class StockReservationServiceTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ReservationOutcomeRepository reservationOutcomeRepository;
+
+    private Long apples;
+    private Long pears;
+
+    @BeforeEach
+    void setUp() {
+        apples = productRepository.save(product("apple", 10)).getId();
+        pears = productRepository.save(product("pear", 3)).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockReservationRepository.deleteAll();
+        reservationOutcomeRepository.deleteAll();
+        productRepository.deleteAllById(List.of(apples, pears));
+    }
+
+    @Test
+    void batchRejectsOnlyTheOrdersThatCannotBeMet() {
+        UUID first = UUID.randomUUID();
+        UUID tooManyPears = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+
+        List<ReservationResponseDTO> results = stockReservationService.reserveAll(List.of(
+                request(first, line(apples, 4), line(pears, 2)),
+                request(tooManyPears, line(apples, 1), line(pears, 2)),
+                request(last, line(apples, 5))));
+
+        assertThat(results).extracting(ReservationResponseDTO::getOrderNumber).containsExactly(first, tooManyPears, last);
+        assertThat(results).extracting(ReservationResponseDTO::getStatus).containsExactly("HELD", "REJECTED", "HELD");
+        assertThat(stock(apples)).isEqualTo(1);
+        assertThat(stock(pears)).isEqualTo(1);
+        assertThat(stockReservationRepository.findByOrderNumber(tooManyPears)).isEmpty();
+        assertThat(stockReservationRepository.findByOrderNumber(first))
+                .extracting(StockReservation::getStatus)
+                .containsOnly(ReservationStatus.HELD);
+    }
+
+    @Test
+    void batchWithinStockTakesItWithSummedDecrements() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        List<ReservationResponseDTO> results = stockReservationService.reserveAll(List.of(
+                request(first, line(apples, 6), line(pears, 3)),
+                request(second, line(apples, 4))));
+
+        assertThat(results).extracting(ReservationResponseDTO::getStatus).containsExactly("HELD", "HELD");
+        assertThat(stock(apples)).isZero();
+        assertThat(stock(pears)).isZero();
+    }
+
+    @Test
+    void alreadyReservedOrdersAreAnsweredWithTheirStoredState() {
+        UUID orderNumber = UUID.randomUUID();
+        stockReservationService.reserve(request(orderNumber, line(apples, 2)));
+        stockReservationService.confirm(orderNumber);
+
+        List<ReservationResponseDTO> results = stockReservationService.reserveAll(List.of(
+                request(orderNumber, line(apples, 2)),
+                request(orderNumber, line(apples, 2))));
+
+        assertThat(results).extracting(ReservationResponseDTO::getStatus).containsExactly("CONFIRMED", "CONFIRMED");
+        assertThat(stock(apples)).isEqualTo(8);
+    }
+
+    @Test
+    void orderNumberRepeatedInOneBatchIsReservedOnce() {
+        UUID orderNumber = UUID.randomUUID();
+
+        List<ReservationResponseDTO> results = stockReservationService.reserveAll(List.of(
+                request(orderNumber, line(apples, 3)),
+                request(orderNumber, line(apples, 3))));
+
+        assertThat(results).extracting(ReservationResponseDTO::getStatus).containsExactly("HELD", "HELD");
+        assertThat(stock(apples)).isEqualTo(7);
+    }
+
+    // One event per partition: the pear event is rejected, order-service cancels the order and its release reaches
+    // product-service before the apple event does.
+    @Test
+    void splitOrderRejectedFirstNeverTakesStockForItsOtherEvents() {
+        UUID orderNumber = UUID.randomUUID();
+        StockReservationEvent pearEvent = event(orderNumber, new StockLine(pears, 5));
+
+        assertThat(stockReservationService.settle(List.of(pearEvent))).containsExactly(false);
+        stockReservationService.handleStockReleaseEvent(new StockReleaseEvent(1L, orderNumber), mock(Acknowledgment.class));
+        assertThat(stockReservationService.settle(List.of(event(orderNumber, new StockLine(apples, 4)))))
+                .containsExactly(false);
+
+        assertThat(stock(apples)).isEqualTo(10);
+        assertThat(stock(pears)).isEqualTo(3);
+        assertThat(stockReservationRepository.findByOrderNumber(orderNumber)).isEmpty();
+
+        // redelivered after a restock, it still gets the answer the order was cancelled on
+        Product restocked = productRepository.findById(pears).orElseThrow();
+        restocked.setStockQuantity(20);
+        productRepository.save(restocked);
+        assertThat(stockReservationService.settle(List.of(pearEvent))).containsExactly(false);
+        assertThat(stock(pears)).isEqualTo(20);
+    }
+
+    @Test
+    void splitOrderRejectedInOneBatchGivesBackWhatItsOtherEventsTook() {
+        UUID orderNumber = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+
+        List<Boolean> results = stockReservationService.settle(List.of(
+                event(orderNumber, new StockLine(pears, 5)),
+                event(other, new StockLine(apples, 2)),
+                event(orderNumber, new StockLine(apples, 4))));
+
+        assertThat(results).containsExactly(false, true, false);
+        assertThat(stock(apples)).isEqualTo(8);
+        assertThat(stock(pears)).isEqualTo(3);
+    }
+
+    @Test
+    void releaseOfASettledOrderRejectsItsLaterEvents() {
+        UUID orderNumber = UUID.randomUUID();
+
+        assertThat(stockReservationService.settle(List.of(event(orderNumber, new StockLine(apples, 4)))))
+                .containsExactly(true);
+        stockReservationService.handleStockReleaseEvent(new StockReleaseEvent(1L, orderNumber), mock(Acknowledgment.class));
+        assertThat(stockReservationService.settle(List.of(event(orderNumber, new StockLine(pears, 1)))))
+                .containsExactly(false);
+
+        assertThat(stock(apples)).isEqualTo(10);
+        assertThat(stock(pears)).isEqualTo(3);
+    }
+
+    private static StockReservationEvent event(UUID orderNumber, StockLine... lines) {
+        return new StockReservationEvent(1L, orderNumber, List.of(lines));
+    }
+
+    private int stock(Long productId) {
+        return productRepository.findById(productId).orElseThrow().getStockQuantity();
+    }
+
+    private static Product product(String name, int stock) {
+        return new Product(null, name, name, BigDecimal.ONE, stock, "fruit", null, Rating.FIVE_STARS, null);
+    }
+
+    private static ReservationRequestDTO request(UUID orderNumber, ReservationLineDTO... lines) {
+        return new ReservationRequestDTO(orderNumber, List.of(lines));
+    }
+
+    private static ReservationLineDTO line(Long productId, int quantity) {
+        return new ReservationLineDTO(productId, quantity);
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.productservice.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Time is whatever advanceTo is given, so every test drives the wheel with its own clock.
+class TimingWheelTest {
+
+    // 10 ms ticks, 4 slots per level, 3 levels: level 0 spans 4 ticks, level 1 16 and level 2 64; anything later
+    // overflows into the top level.
+    private static final long TICK_MS = 10;
+    private static final int WHEEL_SIZE = 4;
+    private static final int LEVELS = 3;
+
+    @Test
+    void expiresOnItsDeadlineTickAndNotBefore() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("a", 30);
+
+        assertThat(wheel.advanceTo(29)).isEmpty();
+        assertThat(wheel.advanceTo(30)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineBetweenTicksRoundsUp() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("a", 31);
+
+        assertThat(wheel.advanceTo(39)).isEmpty();
+        assertThat(wheel.advanceTo(40)).containsExactly("a");
+    }
+
+    @Test
+    void deadlineInThePastExpiresOnTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 1_000);
+        wheel.schedule("a", 500);
+
+        assertThat(wheel.advanceTo(1_009)).isEmpty();
+        assertThat(wheel.advanceTo(1_010)).containsExactly("a");
+    }
+
+    // Every deadline from one tick out to past the top level, from start ticks on and off the level boundaries,
+    // stepping one tick at a time: each timer must fire on exactly its own tick.
+    @Test
+    void expiresExactlyOnSlotAndLevelBoundaries() {
+        for (long startTick = 0; startTick < 20; startTick++) {
+            for (long deadlineTick = startTick + 1; deadlineTick <= startTick + 200; deadlineTick++) {
+                TimingWheel<Long> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, startTick * TICK_MS);
+                wheel.schedule(deadlineTick, deadlineTick * TICK_MS);
+
+                for (long tick = startTick + 1; tick < deadlineTick; tick++) {
+                    assertThat(wheel.advanceTo(tick * TICK_MS))
+                            .as("start %d, deadline %d, tick %d", startTick, deadlineTick, tick)
+                            .isEmpty();
+                }
+                assertThat(wheel.advanceTo(deadlineTick * TICK_MS))
+                        .as("start %d, deadline %d", startTick, deadlineTick)
+                        .containsExactly(deadlineTick);
+            }
+        }
+    }
+
+    @Test
+    void cascadesFromTheHigherLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("level1", 50);
+        wheel.schedule("level2", 500);
+        wheel.schedule("overflow", 1_500);
+
+        assertThat(wheel.advanceTo(49)).isEmpty();
+        assertThat(wheel.advanceTo(50)).containsExactly("level1");
+        assertThat(wheel.advanceTo(499)).isEmpty();
+        assertThat(wheel.advanceTo(500)).containsExactly("level2");
+        assertThat(wheel.advanceTo(1_499)).isEmpty();
+        assertThat(wheel.advanceTo(1_500)).containsExactly("overflow");
+        assertThat(wheel.size()).isZero();
+    }
+
+    // Large jumps cross several cascades in one call and must return exactly the timers that fell due.
+    @Test
+    void jumpsReturnEverythingThatFellDue() {
+        Random random = new Random(42);
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int key = 0; key < 1_000; key++) {
+            long deadline = 1 + random.nextInt(3_000);
+            deadlines.put(key, deadline);
+            wheel.schedule(key, deadline);
+        }
+
+        long now = 0;
+        while (now < 3_100) {
+            long previous = now;
+            now += random.nextInt(200);
+            long from = previous;
+            long to = now;
+            List<Integer> expected = new ArrayList<>();
+            deadlines.forEach((key, deadline) -> {
+                long tick = (deadline + TICK_MS - 1) / TICK_MS;
+                if (tick > from / TICK_MS && tick <= to / TICK_MS) {
+                    expected.add(key);
+                }
+            });
+            assertThat(wheel.advanceTo(now)).containsExactlyInAnyOrderElementsOf(expected);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cancelledTimerNeverExpires() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("a", 500);
+        wheel.schedule("b", 500);
+
+        // "a" has cascaded down to level 0 by now
+        assertThat(wheel.advanceTo(480)).isEmpty();
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(wheel.cancel("a")).isFalse();
+
+        assertThat(wheel.advanceTo(1_000)).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void reschedulingMovesTheDeadline() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK_MS, WHEEL_SIZE, LEVELS, 0);
+        wheel.schedule("a", 500);
+        wheel.schedule("a", 100);
+
+        assertThat(wheel.advanceTo(100)).containsExactly("a");
+        assertThat(wheel.advanceTo(1_000)).isEmpty();
+    }
+
+    @Test
+    void rejectsWheelSizeThatIsNotAPowerOfTwo() {
+        assertThatThrownBy(() -> new TimingWheel<String>(TICK_MS, 6, LEVELS, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}